@@ -0,0 +1,103 @@
+package come.one.app.aop.logging;
+
+import come.one.app.domain.User;
+import come.one.app.service.dto.UserDTO;
+import come.one.app.service.mapper.UserMapper;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.codahale.metrics.MetricRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the overhead of the {@link LoggingAspect} on a component call, in each of its modes.
+ * <p>
+ * "direct" calls the component itself, "off" calls it through a proxy the aspect was removed from, as the
+ * {@link LoggingAspectManager} does when the aspect isn't active. In the "log" mode the aspect logger is at the
+ * DEBUG level but has no appender, so the messages are formatted but not written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    @Param({"direct", "off", "log", "profile"})
+    private String mode;
+
+    private UserMapper userMapper;
+
+    private User user;
+
+    @Setup
+    public void setup() {
+        ch.qos.logback.classic.Logger aspectLogger =
+            ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(LoggingAspect.class);
+        aspectLogger.detachAndStopAllAppenders();
+        aspectLogger.setAdditive(false);
+        aspectLogger.setLevel(Level.DEBUG);
+
+        user = new User();
+        user.setLogin("user");
+        user.setEmail("user@localhost");
+        if ("direct".equals(mode)) {
+            userMapper = new UserMapper();
+            return;
+        }
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(),
+            new MetricRegistryProvider(new MetricRegistry()),
+            "profile".equals(mode) ? LoggingAspectMode.PROFILE : LoggingAspectMode.LOG);
+        Advisor advisor = new DefaultPointcutAdvisor(LoggingAspect.pointcut(), loggingAspect);
+        ProxyFactory proxyFactory = new ProxyFactory(new UserMapper());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        if ("off".equals(mode)) {
+            proxyFactory.removeAdvisor(advisor);
+        }
+        userMapper = (UserMapper) proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public UserDTO userToUserDTO() {
+        return userMapper.userToUserDTO(user);
+    }
+
+    private static class MetricRegistryProvider implements ObjectProvider<MetricRegistry> {
+
+        private final MetricRegistry metricRegistry;
+
+        MetricRegistryProvider(MetricRegistry metricRegistry) {
+            this.metricRegistry = metricRegistry;
+        }
+
+        @Override
+        public MetricRegistry getObject(Object... args) {
+            return metricRegistry;
+        }
+
+        @Override
+        public MetricRegistry getIfAvailable() {
+            return metricRegistry;
+        }
+
+        @Override
+        public MetricRegistry getIfUnique() {
+            return metricRegistry;
+        }
+
+        @Override
+        public MetricRegistry getObject() {
+            return metricRegistry;
+        }
+    }
+}
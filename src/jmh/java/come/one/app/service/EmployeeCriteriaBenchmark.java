@@ -0,0 +1,85 @@
+package come.one.app.service;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.domain.Employee;
+import come.one.app.service.dto.EmployeeCriteria;
+
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specifications;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversion of an {@link EmployeeCriteria} to a JPA query, done for each employee listing.
+ * <p>
+ * The criteria API needs the Hibernate metamodel: the application is started on the H2 configuration of the tests,
+ * without listening for HTTP requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeCriteriaBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeQueryService employeeQueryService;
+
+    private EntityManager entityManager;
+
+    private EmployeeCriteria criteria;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(TraningbackendApp.class)
+            .web(false)
+            .run();
+        employeeQueryService = context.getBean(EmployeeQueryService.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+
+        criteria = new EmployeeCriteria();
+        StringFilter name = new StringFilter();
+        name.setContains("smith");
+        criteria.setName(name);
+        IntegerFilter age = new IntegerFilter();
+        age.setGreaterOrEqualThan(20);
+        age.setLessThan(60);
+        criteria.setAge(age);
+        LongFilter departmentId = new LongFilter();
+        departmentId.setIn(Arrays.asList(1L, 2L, 3L));
+        criteria.setDepartmentId(departmentId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Specifications<Employee> createSpecification() {
+        return employeeQueryService.createSpecification(criteria);
+    }
+
+    @Benchmark
+    public Predicate toPredicate() {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = builder.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class);
+        return employeeQueryService.createSpecification(criteria).toPredicate(root, query, builder);
+    }
+}
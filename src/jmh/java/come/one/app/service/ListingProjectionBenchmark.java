@@ -0,0 +1,119 @@
+package come.one.app.service;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.domain.Department;
+import come.one.app.domain.Employee;
+import come.one.app.repository.DepartmentRepository;
+import come.one.app.repository.EmployeeRepository;
+import come.one.app.service.dto.DepartmentCriteria;
+import come.one.app.service.dto.DepartmentDTO;
+import come.one.app.service.dto.EmployeeCriteria;
+import come.one.app.service.dto.EmployeeDTO;
+import come.one.app.service.mapper.DepartmentMapper;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a page of the employee and department listings, loaded as managed entities then serialized or
+ * mapped, as they were, or selected straight into DTOs, as they are.
+ * <p>
+ * Run with the "gc" profiler of the jmh Maven profile, "gc.alloc.rate.norm" gives the bytes allocated per page.
+ * The application is started on the H2 configuration of the tests, without listening for HTTP requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingProjectionBenchmark {
+
+    private static final int DEPARTMENTS = 100;
+
+    private static final int EMPLOYEES = 2000;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private EmployeeQueryService employeeQueryService;
+
+    private EmployeeRepository employeeRepository;
+
+    private DepartmentQueryService departmentQueryService;
+
+    private DepartmentRepository departmentRepository;
+
+    private DepartmentMapper departmentMapper;
+
+    private Pageable pageable;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(TraningbackendApp.class)
+            .web(false)
+            .run();
+        employeeQueryService = context.getBean(EmployeeQueryService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        departmentQueryService = context.getBean(DepartmentQueryService.class);
+        departmentRepository = context.getBean(DepartmentRepository.class);
+        departmentMapper = context.getBean(DepartmentMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        pageable = new PageRequest(1, pageSize);
+
+        List<Department> departments = new ArrayList<>();
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            departments.add(new Department().name("department-" + i).area((long) i));
+        }
+        departments = departmentRepository.save(departments);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee().name("employee-" + i).age(20 + i % 40).department(departments.get(i % DEPARTMENTS)));
+        }
+        employeeRepository.save(employees);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Employee> employeeEntities() {
+        return readOnlyTransaction.execute(status ->
+            employeeRepository.findAll(employeeQueryService.createSpecification(new EmployeeCriteria()), pageable));
+    }
+
+    @Benchmark
+    public Page<EmployeeDTO> employeeProjections() {
+        return readOnlyTransaction.execute(status ->
+            employeeQueryService.findByCriteria(new EmployeeCriteria(), pageable));
+    }
+
+    @Benchmark
+    public Page<DepartmentDTO> departmentEntities() {
+        return readOnlyTransaction.execute(status ->
+            departmentRepository.findAll(pageable).map(departmentMapper::toDto));
+    }
+
+    @Benchmark
+    public Page<DepartmentDTO> departmentProjections() {
+        return readOnlyTransaction.execute(status ->
+            departmentQueryService.findByCriteria(new DepartmentCriteria(), pageable));
+    }
+}
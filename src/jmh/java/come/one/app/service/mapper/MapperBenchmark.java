@@ -0,0 +1,89 @@
+package come.one.app.service.mapper;
+
+import come.one.app.domain.Authority;
+import come.one.app.domain.Department;
+import come.one.app.domain.User;
+import come.one.app.security.AuthoritiesConstants;
+import come.one.app.service.dto.DepartmentDTO;
+import come.one.app.service.dto.UserDTO;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the entity to DTO mappings done for the listings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private DepartmentMapper departmentMapper;
+
+    private UserMapper userMapper;
+
+    private List<Department> departments;
+
+    private List<DepartmentDTO> departmentDTOs;
+
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        departmentMapper = new DepartmentMapperImpl();
+        userMapper = new UserMapper();
+        Set<Authority> authorities = new HashSet<>();
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        authorities.add(authority);
+
+        departments = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Department department = new Department().name("department-" + i).area((long) i);
+            department.setId((long) i);
+            departments.add(department);
+
+            User user = new User();
+            user.setId((long) i);
+            user.setLogin("user-" + i);
+            user.setFirstName("first-" + i);
+            user.setLastName("last-" + i);
+            user.setEmail("user-" + i + "@localhost");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setCreatedBy("system");
+            user.setCreatedDate(Instant.now());
+            user.setAuthorities(authorities);
+            users.add(user);
+        }
+        departmentDTOs = departmentMapper.toDto(departments);
+    }
+
+    @Benchmark
+    public List<DepartmentDTO> departmentsToDto() {
+        return departmentMapper.toDto(departments);
+    }
+
+    @Benchmark
+    public List<Department> departmentsToEntity() {
+        return departmentMapper.toEntity(departmentDTOs);
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+}
@@ -0,0 +1,53 @@
+package come.one.app.service.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the searches of the {@link TrigramIndex} behind the employee typeahead, on generated names.
+ * <p>
+ * The estimated memory use of the index is printed once it is built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TrigramIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+        "Linda", "William", "Elizabeth", "David", "Barbara", "Nguyễn", "Trần", "Minh", "Lan", "Anh", "Hoa"};
+
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+        "Davis", "Rodriguez", "Martinez", "Lê", "Phạm", "Hoàng", "Vũ", "Đặng", "Bùi"};
+
+    @Param({"100000", "1000000"})
+    private int names;
+
+    @Param({"jo", "smith", "rtinez", "elizabeth bu"})
+    private String query;
+
+    private TrigramIndex index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        index = new TrigramIndex();
+        for (int i = 0; i < names; i++) {
+            // a number makes most of the names unique, as in a real directory
+            index.put(i, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " +
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + random.nextInt(10000));
+        }
+        System.out.printf("%n%d names, %d trigrams, about %d MB%n", index.size(), index.grams(),
+            index.memoryBytes() / 1024 / 1024);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> search() {
+        return index.search(query, 10, 100000);
+    }
+}
@@ -0,0 +1,39 @@
+package come.one.app.web.rest.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the Link and X-Total-Count headers, built for each listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationUtilBenchmark {
+
+    private Page<Long> page;
+
+    @Setup
+    public void setup() {
+        List<Long> content = new ArrayList<>();
+        for (long i = 0; i < 20; i++) {
+            content.add(i);
+        }
+        page = new PageImpl<>(content, new PageRequest(5, 20), 10000);
+    }
+
+    @Benchmark
+    public HttpHeaders generatePaginationHttpHeaders() {
+        return PaginationUtil.generatePaginationHttpHeaders(page, "/api/employees");
+    }
+}
@@ -2,6 +2,7 @@ package come.one.app;
 
 import come.one.app.config.ApplicationProperties;
 import come.one.app.config.DefaultProfileUtil;
+import come.one.app.config.LiquibaseMigration;
 
 import io.github.jhipster.config.JHipsterConstants;
 
@@ -55,12 +56,16 @@ public class TraningbackendApp {
     }
 
     /**
-     * Main method, used to run the application.
+     * Main method, used to run the application, or only the {@link LiquibaseMigration} with the "migrate" argument.
      *
      * @param args the command line arguments
      * @throws UnknownHostException if the local host name could not be resolved into an address
      */
     public static void main(String[] args) throws UnknownHostException {
+        if (Arrays.asList(args).contains(LiquibaseMigration.COMMAND)) {
+            LiquibaseMigration.main(args);
+            return;
+        }
         SpringApplication app = new SpringApplication(TraningbackendApp.class);
         DefaultProfileUtil.addDefaultProfile(app);
         Environment env = app.run(args).getEnvironment();
@@ -0,0 +1,32 @@
+package come.one.app.aop.logging;
+
+/**
+ * Event published when the level of a logger is changed at runtime.
+ */
+public class LoggerLevelChangedEvent {
+
+    private final String name;
+
+    private final String level;
+
+    public LoggerLevelChangedEvent(String name, String level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    @Override
+    public String toString() {
+        return "LoggerLevelChangedEvent{" +
+            "name='" + name + "'" +
+            ", level='" + level + "'" +
+            "}";
+    }
+}
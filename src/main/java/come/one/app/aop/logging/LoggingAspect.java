@@ -2,97 +2,139 @@ package come.one.app.aop.logging;
 
 import io.github.jhipster.config.JHipsterConstants;
 
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.AfterThrowing;
-import org.aspectj.lang.annotation.Around;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Pointcut;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.env.Environment;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Aspect for logging execution of service and repository Spring components.
- *
- * By default, it only runs with the "dev" profile.
+ * Aspect for logging or profiling the execution of service, repository and Web REST endpoint Spring components.
+ * <p>
+ * It is a plain method interceptor rather than an AspectJ advice, so that the {@link LoggingAspectManager} can
+ * add it to and remove it from the components at runtime, and so that no join point is built for each call.
  */
-@Aspect
-public class LoggingAspect {
+public class LoggingAspect implements MethodInterceptor {
+
+    /**
+     * Pointcut that matches all repositories, services and Web REST endpoints in the application's main packages.
+     */
+    public static final String POINTCUT_EXPRESSION =
+        "(within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.stereotype.Service *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *))" +
+        " && (within(come.one.app.repository..*)" +
+        " || within(come.one.app.service..*)" +
+        " || within(come.one.app.web.rest..*))";
+
+    private static final String PROFILE_METRIC_PREFIX = "aop.profile";
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final ObjectProvider<MetricRegistry> metricRegistry;
+
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    private final LoggingAspectMode mode;
+
+    /**
+     * The MetricRegistry is looked up on the first profiled call, as this aspect is created before most of the beans.
+     */
+    public LoggingAspect(Environment env, ObjectProvider<MetricRegistry> metricRegistry, LoggingAspectMode mode) {
         this.env = env;
+        this.metricRegistry = metricRegistry;
+        this.mode = mode;
     }
 
     /**
-     * Pointcut that matches all repositories, services and Web REST endpoints.
+     * @return the pointcut of the components this aspect applies to
      */
-    @Pointcut("within(@org.springframework.stereotype.Repository *)" +
-        " || within(@org.springframework.stereotype.Service *)" +
-        " || within(@org.springframework.web.bind.annotation.RestController *)")
-    public void springBeanPointcut() {
-        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    public static Pointcut pointcut() {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(POINTCUT_EXPRESSION);
+        return pointcut;
+    }
+
+    public LoggingAspectMode getMode() {
+        return mode;
     }
 
     /**
-     * Pointcut that matches all Spring beans in the application's main packages.
+     * @return true if the aspect should be applied to the components, in the current mode and logging level
      */
-    @Pointcut("within(come.one.app.repository..*)"+
-        " || within(come.one.app.service..*)"+
-        " || within(come.one.app.web.rest..*)")
-    public void applicationPackagePointcut() {
-        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    public boolean isActive() {
+        return mode == LoggingAspectMode.PROFILE || (mode == LoggingAspectMode.LOG && log.isDebugEnabled());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (mode == LoggingAspectMode.PROFILE) {
+            return profile(invocation);
+        }
+        return logAround(invocation);
     }
 
     /**
-     * Advice that logs methods throwing exceptions.
-     *
-     * @param joinPoint join point for advice
-     * @param e exception
+     * Records the latency of the method in its timer.
      */
-    @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)) {
-            log.error("Exception in {}.{}() with cause = \'{}\' and exception = \'{}\'", joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(), e.getCause() != null? e.getCause() : "NULL", e.getMessage(), e);
-
-        } else {
-            log.error("Exception in {}.{}() with cause = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(), e.getCause() != null? e.getCause() : "NULL");
+    private Object profile(MethodInvocation invocation) throws Throwable {
+        Timer timer = timers.computeIfAbsent(invocation.getMethod(), method -> metricRegistry.getObject().timer(
+            MetricRegistry.name(PROFILE_METRIC_PREFIX, method.getDeclaringClass().getName(), method.getName())));
+        Timer.Context context = timer.time();
+        try {
+            return invocation.proceed();
+        } finally {
+            context.stop();
         }
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
-     *
-     * @param joinPoint join point for advice
-     * @return result
-     * @throws Throwable throws IllegalArgumentException
+     * Logs when a method is entered and exited, and when it throws an exception.
      */
-    @Around("applicationPackagePointcut() && springBeanPointcut()")
-    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
+    private Object logAround(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
         if (log.isDebugEnabled()) {
-            log.debug("Enter: {}.{}() with argument[s] = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+            log.debug("Enter: {}.{}() with argument[s] = {}", method.getDeclaringClass().getName(),
+                method.getName(), Arrays.toString(invocation.getArguments()));
         }
         try {
-            Object result = joinPoint.proceed();
+            Object result = invocation.proceed();
             if (log.isDebugEnabled()) {
-                log.debug("Exit: {}.{}() with result = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                    joinPoint.getSignature().getName(), result);
+                log.debug("Exit: {}.{}() with result = {}", method.getDeclaringClass().getName(),
+                    method.getName(), result);
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}.{}()", Arrays.toString(joinPoint.getArgs()),
-                joinPoint.getSignature().getDeclaringTypeName(), joinPoint.getSignature().getName());
+            log.error("Illegal argument: {} in {}.{}()", Arrays.toString(invocation.getArguments()),
+                method.getDeclaringClass().getName(), method.getName());
 
             throw e;
+        } catch (Throwable e) {
+            logAfterThrowing(method, e);
+            throw e;
+        }
+    }
+
+    private void logAfterThrowing(Method method, Throwable e) {
+        if (env.acceptsProfiles(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)) {
+            log.error("Exception in {}.{}() with cause = \'{}\' and exception = \'{}\'", method.getDeclaringClass().getName(),
+                method.getName(), e.getCause() != null? e.getCause() : "NULL", e.getMessage(), e);
+
+        } else {
+            log.error("Exception in {}.{}() with cause = {}", method.getDeclaringClass().getName(),
+                method.getName(), e.getCause() != null? e.getCause() : "NULL");
         }
     }
 }
@@ -0,0 +1,79 @@
+package come.one.app.aop.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Adds the {@link LoggingAspect} to the application components, or removes it from them, depending on its mode and
+ * on the level of its logger.
+ * <p>
+ * The advisor is a bean, so the components it applies to are proxied at startup. Once the context is refreshed,
+ * and each time a logger level is changed, it is removed from the proxies when it isn't active: their calls then
+ * don't go through it at all.
+ */
+public class LoggingAspectManager {
+
+    private final Logger log = LoggerFactory.getLogger(LoggingAspectManager.class);
+
+    private final LoggingAspect loggingAspect;
+
+    private final Advisor advisor;
+
+    private final ApplicationContext applicationContext;
+
+    public LoggingAspectManager(LoggingAspect loggingAspect, Advisor advisor, ApplicationContext applicationContext) {
+        this.loggingAspect = loggingAspect;
+        this.advisor = advisor;
+        this.applicationContext = applicationContext;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        refresh();
+    }
+
+    @EventListener
+    public void onLoggerLevelChanged(LoggerLevelChangedEvent event) {
+        log.debug("Logger level changed: {}", event);
+        refresh();
+    }
+
+    /**
+     * Add the aspect to the proxies of the components it applies to if it is active, or remove it from them.
+     */
+    public synchronized void refresh() {
+        boolean active = loggingAspect.isActive();
+        int changed = 0;
+        for (Object bean : applicationContext.getBeansOfType(Advised.class, false, false).values()) {
+            if (apply((Advised) bean, active)) {
+                changed++;
+            }
+        }
+        log.debug("Logging aspect {} in {} mode, {} components updated", active ? "active" : "inactive",
+            loggingAspect.getMode(), changed);
+    }
+
+    /**
+     * @return true if the advisors of the proxy were changed
+     */
+    boolean apply(Advised advised, boolean active) {
+        if (advised.isFrozen() || !AopUtils.canApply(advisor, AopUtils.getTargetClass(advised))) {
+            return false;
+        }
+        boolean present = advised.indexOf(advisor) >= 0;
+        if (active && !present) {
+            advised.addAdvisor(advisor);
+            return true;
+        }
+        if (!active && present) {
+            return advised.removeAdvisor(advisor);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package come.one.app.aop.logging;
+
+/**
+ * What the {@link LoggingAspect} does with the calls of the application components.
+ */
+public enum LoggingAspectMode {
+
+    /**
+     * The aspect isn't applied at all.
+     */
+    OFF,
+
+    /**
+     * The calls are logged with their arguments and results, while the LoggingAspect logger is at the DEBUG level.
+     * The rest of the time, the aspect is removed from the components, so it costs nothing.
+     */
+    LOG,
+
+    /**
+     * The latency of each method is recorded in a timer of the MetricRegistry, named "aop.profile.[class].[method]".
+     */
+    PROFILE
+}
@@ -0,0 +1,161 @@
+package come.one.app.config;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link ThreadPoolTaskExecutor} reporting its saturation in the {@link MetricRegistry}, and growing its core
+ * threads when the tasks wait too long in its queue.
+ * <p>
+ * A {@link ThreadPoolExecutor} only starts threads beyond its core size once its queue is full, so with a large
+ * queue the tasks can wait for minutes behind a slow one while the pool stays at its core size. Here, the age of
+ * the oldest queued task is checked every "resize interval": above the target queue latency, the core size grows,
+ * up to the maximum pool size, by as many threads as there are queued tasks, doubling at most. Once the queue is
+ * empty and threads are idle, it shrinks back by a thread per interval, down to its configured core size.
+ * <p>
+ * The metrics, named after the executor: the queue size, active threads, pool and core sizes as gauges, the rejected
+ * tasks as a meter, and the time the tasks wait in the queue and run as timers.
+ */
+public class AdaptiveThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final Logger log = LoggerFactory.getLogger(AdaptiveThreadPoolTaskExecutor.class);
+
+    private final Timer waitTimer;
+
+    private final Timer runTimer;
+
+    private final Meter rejected;
+
+    private final boolean adaptive;
+
+    private final long targetQueueLatencyNanos;
+
+    private final long resizeIntervalMs;
+
+    private volatile ThreadPoolExecutor pool;
+
+    private int minCorePoolSize;
+
+    private ScheduledExecutorService resizer;
+
+    public AdaptiveThreadPoolTaskExecutor(String name, ApplicationProperties.Async properties,
+                                          MetricRegistry metricRegistry) {
+        this.adaptive = properties.isAdaptive();
+        this.targetQueueLatencyNanos = TimeUnit.MILLISECONDS.toNanos(properties.getTargetQueueLatencyMs());
+        this.resizeIntervalMs = properties.getResizeIntervalMs();
+        this.waitTimer = metricRegistry.timer(MetricRegistry.name(AdaptiveThreadPoolTaskExecutor.class, name, "wait"));
+        this.runTimer = metricRegistry.timer(MetricRegistry.name(AdaptiveThreadPoolTaskExecutor.class, name, "run"));
+        this.rejected = metricRegistry.meter(MetricRegistry.name(AdaptiveThreadPoolTaskExecutor.class, name, "rejected"));
+        register(metricRegistry, name, "queue.size", executor -> executor.getQueue().size());
+        register(metricRegistry, name, "active", ThreadPoolExecutor::getActiveCount);
+        register(metricRegistry, name, "pool.size", ThreadPoolExecutor::getPoolSize);
+        register(metricRegistry, name, "core.size", ThreadPoolExecutor::getCorePoolSize);
+        // applied by the ThreadPoolTaskExecutor to the tasks submitted too, so the queue only holds timed tasks
+        setTaskDecorator(TimedTask::new);
+        setRejectedExecutionHandler(new RejectedExecutionHandler() {
+
+            private final RejectedExecutionHandler delegate = new ThreadPoolExecutor.AbortPolicy();
+
+            @Override
+            public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+                rejected.mark();
+                delegate.rejectedExecution(task, executor);
+            }
+        });
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+        ExecutorService executor = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+        pool = getThreadPoolExecutor();
+        minCorePoolSize = pool.getCorePoolSize();
+        if (adaptive && pool.getMaximumPoolSize() > minCorePoolSize) {
+            resizer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, getThreadNamePrefix() + "resizer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            resizer.scheduleWithFixedDelay(this::resize, resizeIntervalMs, resizeIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        return executor;
+    }
+
+    @Override
+    public void shutdown() {
+        if (resizer != null) {
+            resizer.shutdownNow();
+        }
+        super.shutdown();
+    }
+
+    /**
+     * Grow the core threads if the oldest queued task has waited more than the target latency, or shrink them if
+     * the queue is empty and a thread is idle.
+     */
+    void resize() {
+        ThreadPoolExecutor executor = pool;
+        int core = executor.getCorePoolSize();
+        int queued = executor.getQueue().size();
+        if (oldestQueuedNanos(executor) > targetQueueLatencyNanos) {
+            int grown = Math.min(executor.getMaximumPoolSize(), core + Math.max(1, Math.min(core, queued)));
+            if (grown > core) {
+                log.debug("Tasks waiting more than {} ms, growing from {} to {} core threads",
+                    TimeUnit.NANOSECONDS.toMillis(targetQueueLatencyNanos), core, grown);
+                // through Spring so getCorePoolSize() follows, starts the new threads right away for the queued tasks
+                setCorePoolSize(grown);
+            }
+        } else if (queued == 0 && core > minCorePoolSize && executor.getActiveCount() < core) {
+            // the idle threads above the core size stop after the keep alive time
+            setCorePoolSize(core - 1);
+        }
+    }
+
+    private static long oldestQueuedNanos(ThreadPoolExecutor executor) {
+        Runnable oldest = executor.getQueue().peek();
+        return oldest instanceof TimedTask ? System.nanoTime() - ((TimedTask) oldest).queuedAt : 0;
+    }
+
+    private void register(MetricRegistry metricRegistry, String name, String metric, ToIntFunction<ThreadPoolExecutor> value) {
+        metricRegistry.register(MetricRegistry.name(AdaptiveThreadPoolTaskExecutor.class, name, metric),
+            (Gauge<Integer>) () -> {
+                ThreadPoolExecutor executor = pool;
+                return executor == null ? 0 : value.applyAsInt(executor);
+            });
+    }
+
+    /**
+     * A task recording the time it waited in the queue, and then ran.
+     */
+    private class TimedTask implements Runnable {
+
+        private final Runnable task;
+
+        private final long queuedAt = System.nanoTime();
+
+        TimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            waitTimer.update(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            try (Timer.Context ignored = runTimer.time()) {
+                task.run();
+            }
+        }
+    }
+}
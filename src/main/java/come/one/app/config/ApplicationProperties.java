@@ -1,7 +1,15 @@
 package come.one.app.config;
 
+import come.one.app.aop.logging.LoggingAspectMode;
+import come.one.app.config.datasource.ReplicaLoadBalancing;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Properties specific to Traningbackend.
  * <p>
@@ -11,4 +19,783 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final Pagination pagination = new Pagination();
+
+    private final Export export = new Export();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    private final Audit audit = new Audit();
+
+    private final LoadTest loadTest = new LoadTest();
+
+    private final LoggingAspect loggingAspect = new LoggingAspect();
+
+    private final Datasource datasource = new Datasource();
+
+    private final DepartmentStats departmentStats = new DepartmentStats();
+
+    private final Search search = new Search();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final Threads threads = new Threads();
+
+    private final Async async = new Async();
+
+    private final Startup startup = new Startup();
+
+    private final Liquibase liquibase = new Liquibase();
+
+    private final ConditionalRequests conditionalRequests = new ConditionalRequests();
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public LoadTest getLoadTest() {
+        return loadTest;
+    }
+
+    public LoggingAspect getLoggingAspect() {
+        return loggingAspect;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public DepartmentStats getDepartmentStats() {
+        return departmentStats;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public Threads getThreads() {
+        return threads;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Startup getStartup() {
+        return startup;
+    }
+
+    public Liquibase getLiquibase() {
+        return liquibase;
+    }
+
+    public ConditionalRequests getConditionalRequests() {
+        return conditionalRequests;
+    }
+
+    public static class Pagination {
+
+        private final EstimatedCount estimatedCount = new EstimatedCount();
+
+        public EstimatedCount getEstimatedCount() {
+            return estimatedCount;
+        }
+
+        public static class EstimatedCount {
+
+            private long timeToLiveSeconds = 600;
+
+            private long refreshIntervalMs = 60000;
+
+            private int maxEntries = 1000;
+
+            public long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getRefreshIntervalMs() {
+                return refreshIntervalMs;
+            }
+
+            public void setRefreshIntervalMs(long refreshIntervalMs) {
+                this.refreshIntervalMs = refreshIntervalMs;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class Export {
+
+        private int fetchSize = 500;
+
+        private int clearInterval = 500;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public int getClearInterval() {
+            return clearInterval;
+        }
+
+        public void setClearInterval(int clearInterval) {
+            this.clearInterval = clearInterval;
+        }
+    }
+
+    public static class Bulk {
+
+        private int batchSize = 50;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Cache {
+
+        private long timeToLiveSeconds = 3600;
+
+        private long maxEntries = 100;
+
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        /**
+         * @return the settings of each cache region, which override the default ones
+         */
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            private Long timeToLiveSeconds;
+
+            private Long maxEntries;
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final JwtCache jwtCache = new JwtCache();
+
+        private final PasswordEncoder passwordEncoder = new PasswordEncoder();
+
+        public JwtCache getJwtCache() {
+            return jwtCache;
+        }
+
+        public PasswordEncoder getPasswordEncoder() {
+            return passwordEncoder;
+        }
+
+        public static class JwtCache {
+
+            private boolean enabled = true;
+
+            private int maxEntries = 10000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+
+        public static class PasswordEncoder {
+
+            private int strength = 10;
+
+            private int poolSize = Runtime.getRuntime().availableProcessors();
+
+            private int queueCapacity = 100;
+
+            private long retryAfterSeconds = 1;
+
+            public int getStrength() {
+                return strength;
+            }
+
+            public void setStrength(int strength) {
+                this.strength = strength;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public long getRetryAfterSeconds() {
+                return retryAfterSeconds;
+            }
+
+            public void setRetryAfterSeconds(long retryAfterSeconds) {
+                this.retryAfterSeconds = retryAfterSeconds;
+            }
+        }
+    }
+
+    public static class Audit {
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 50;
+
+        private long flushIntervalMs = 1000;
+
+        private long shutdownTimeoutMs = 10000;
+
+        private final Retention retention = new Retention();
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public long getShutdownTimeoutMs() {
+            return shutdownTimeoutMs;
+        }
+
+        public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+            this.shutdownTimeoutMs = shutdownTimeoutMs;
+        }
+
+        public Retention getRetention() {
+            return retention;
+        }
+
+        public static class Retention {
+
+            private int days = 90;
+
+            private int partitionsAhead = 7;
+
+            private String cron = "0 30 1 * * ?";
+
+            public int getDays() {
+                return days;
+            }
+
+            public void setDays(int days) {
+                this.days = days;
+            }
+
+            public int getPartitionsAhead() {
+                return partitionsAhead;
+            }
+
+            public void setPartitionsAhead(int partitionsAhead) {
+                this.partitionsAhead = partitionsAhead;
+            }
+
+            public String getCron() {
+                return cron;
+            }
+
+            public void setCron(String cron) {
+                this.cron = cron;
+            }
+        }
+    }
+
+    public static class LoadTest {
+
+        private int departments = 100;
+
+        private int employees = 100000;
+
+        private long seed = 42;
+
+        private int batchSize = 1000;
+
+        public int getDepartments() {
+            return departments;
+        }
+
+        public void setDepartments(int departments) {
+            this.departments = departments;
+        }
+
+        public int getEmployees() {
+            return employees;
+        }
+
+        public void setEmployees(int employees) {
+            this.employees = employees;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(long seed) {
+            this.seed = seed;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class LoggingAspect {
+
+        private LoggingAspectMode mode = LoggingAspectMode.OFF;
+
+        public LoggingAspectMode getMode() {
+            return mode;
+        }
+
+        public void setMode(LoggingAspectMode mode) {
+            this.mode = mode;
+        }
+    }
+
+    public static class Datasource {
+
+        private ReplicaLoadBalancing loadBalancing = ReplicaLoadBalancing.ROUND_ROBIN;
+
+        private long maxLagSeconds = 5;
+
+        private long checkIntervalMs = 5000;
+
+        private final List<Replica> replicas = new ArrayList<>();
+
+        public ReplicaLoadBalancing getLoadBalancing() {
+            return loadBalancing;
+        }
+
+        public void setLoadBalancing(ReplicaLoadBalancing loadBalancing) {
+            this.loadBalancing = loadBalancing;
+        }
+
+        public long getMaxLagSeconds() {
+            return maxLagSeconds;
+        }
+
+        public void setMaxLagSeconds(long maxLagSeconds) {
+            this.maxLagSeconds = maxLagSeconds;
+        }
+
+        public long getCheckIntervalMs() {
+            return checkIntervalMs;
+        }
+
+        public void setCheckIntervalMs(long checkIntervalMs) {
+            this.checkIntervalMs = checkIntervalMs;
+        }
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public static class Replica {
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            private int maximumPoolSize = 10;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public int getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(int maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+        }
+    }
+
+    public static class DepartmentStats {
+
+        private String reconcileCron = "0 15 * * * ?";
+
+        public String getReconcileCron() {
+            return reconcileCron;
+        }
+
+        public void setReconcileCron(String reconcileCron) {
+            this.reconcileCron = reconcileCron;
+        }
+    }
+
+    public static class Search {
+
+        private int defaultLimit = 10;
+
+        private int maxLimit = 50;
+
+        private int maxCandidates = 100000;
+
+        private int fetchSize = 1000;
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public int getMaxCandidates() {
+            return maxCandidates;
+        }
+
+        public void setMaxCandidates(int maxCandidates) {
+            this.maxCandidates = maxCandidates;
+        }
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class MailOutbox {
+
+        private boolean enabled = true;
+
+        private int batchSize = 50;
+
+        private long pollIntervalMs = 1000;
+
+        private int maxAttempts = 10;
+
+        private long initialBackoffSeconds = 30;
+
+        private long maxBackoffSeconds = 3600;
+
+        private long leaseSeconds = 600;
+
+        private long shutdownTimeoutMs = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffSeconds() {
+            return initialBackoffSeconds;
+        }
+
+        public void setInitialBackoffSeconds(long initialBackoffSeconds) {
+            this.initialBackoffSeconds = initialBackoffSeconds;
+        }
+
+        public long getMaxBackoffSeconds() {
+            return maxBackoffSeconds;
+        }
+
+        public void setMaxBackoffSeconds(long maxBackoffSeconds) {
+            this.maxBackoffSeconds = maxBackoffSeconds;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+
+        public long getShutdownTimeoutMs() {
+            return shutdownTimeoutMs;
+        }
+
+        public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+            this.shutdownTimeoutMs = shutdownTimeoutMs;
+        }
+    }
+
+    public static class Threads {
+
+        private ThreadMode mode = ThreadMode.PLATFORM;
+
+        private boolean tracePinnedThreads = true;
+
+        public ThreadMode getMode() {
+            return mode;
+        }
+
+        public void setMode(ThreadMode mode) {
+            this.mode = mode;
+        }
+
+        public boolean isTracePinnedThreads() {
+            return tracePinnedThreads;
+        }
+
+        public void setTracePinnedThreads(boolean tracePinnedThreads) {
+            this.tracePinnedThreads = tracePinnedThreads;
+        }
+    }
+
+    public static class Async {
+
+        private boolean adaptive = true;
+
+        private long targetQueueLatencyMs = 100;
+
+        private long resizeIntervalMs = 250;
+
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        public void setAdaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+        }
+
+        public long getTargetQueueLatencyMs() {
+            return targetQueueLatencyMs;
+        }
+
+        public void setTargetQueueLatencyMs(long targetQueueLatencyMs) {
+            this.targetQueueLatencyMs = targetQueueLatencyMs;
+        }
+
+        public long getResizeIntervalMs() {
+            return resizeIntervalMs;
+        }
+
+        public void setResizeIntervalMs(long resizeIntervalMs) {
+            this.resizeIntervalMs = resizeIntervalMs;
+        }
+    }
+
+    public static class Startup {
+
+        private List<String> lazyBeans = new ArrayList<>();
+
+        private boolean exitOnReady = false;
+
+        public List<String> getLazyBeans() {
+            return lazyBeans;
+        }
+
+        public void setLazyBeans(List<String> lazyBeans) {
+            this.lazyBeans = lazyBeans;
+        }
+
+        public boolean isExitOnReady() {
+            return exitOnReady;
+        }
+
+        public void setExitOnReady(boolean exitOnReady) {
+            this.exitOnReady = exitOnReady;
+        }
+    }
+
+    public static class Liquibase {
+
+        private boolean fastPath = true;
+
+        public boolean isFastPath() {
+            return fastPath;
+        }
+
+        public void setFastPath(boolean fastPath) {
+            this.fastPath = fastPath;
+        }
+    }
+
+    public static class ConditionalRequests {
+
+        private boolean listEtags = true;
+
+        public boolean isListEtags() {
+            return listEtags;
+        }
+
+        public void setListEtags(boolean listEtags) {
+            this.listEtags = listEtags;
+        }
+    }
 }
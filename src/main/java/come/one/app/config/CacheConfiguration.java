@@ -0,0 +1,96 @@
+package come.one.app.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.cache.Caching;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.data.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.*;
+
+/**
+ * Configuration of the Ehcache caches, used through JCache by the Hibernate second-level cache.
+ * <p>
+ * Every cache region must be created here: see {@link NoDefaultJCacheRegionFactory}.
+ */
+@Configuration
+@EnableCaching
+@AutoConfigureAfter(value = { MetricsConfiguration.class })
+@AutoConfigureBefore(value = { WebConfigurer.class, DatabaseConfiguration.class })
+public class CacheConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    public CacheConfiguration(ApplicationProperties applicationProperties) {
+        this.cacheProperties = applicationProperties.getCache();
+    }
+
+    /**
+     * The CacheManager holding the Hibernate second-level cache regions, which are all created here.
+     * <p>
+     * It is the default CacheManager of the caching provider, the one the {@link NoDefaultJCacheRegionFactory} gets,
+     * and also the one Spring Boot wraps in its Spring CacheManager.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager() {
+        javax.cache.CacheManager cm = Caching.getCachingProvider().getCacheManager();
+        createCache(cm, come.one.app.domain.User.class.getName(), "user");
+        createCache(cm, come.one.app.domain.Authority.class.getName(), "authority");
+        createCache(cm, come.one.app.domain.User.class.getName() + ".authorities", "user-authorities");
+        createCache(cm, come.one.app.domain.Department.class.getName(), "department");
+        // jhipster-needle-ehcache-add-entry
+        return cm;
+    }
+
+    /**
+     * The regions must exist before Hibernate starts: see {@link NoDefaultJCacheRegionFactory}.
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnJCacheCacheManager() {
+        return new EntityManagerFactoryDependsOnPostProcessor("jCacheCacheManager");
+    }
+
+    /**
+     * Create a cache, unless it exists: the default CacheManager of the caching provider is shared by all the
+     * application contexts of the JVM, like the ones of the tests.
+     */
+    private void createCache(javax.cache.CacheManager cm, String cacheName, String region) {
+        if (cm.getCache(cacheName) == null) {
+            cm.createCache(cacheName, jcacheConfiguration(region));
+        }
+        // read by the HibernateCacheMetrics
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * Configuration of a cache, from the settings of its region, or the default ones.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String region) {
+        ApplicationProperties.Cache.Region regionProperties = cacheProperties.getRegions().get(region);
+        long maxEntries = cacheProperties.getMaxEntries();
+        long timeToLiveSeconds = cacheProperties.getTimeToLiveSeconds();
+        if (regionProperties != null && regionProperties.getMaxEntries() != null) {
+            maxEntries = regionProperties.getMaxEntries();
+        }
+        if (regionProperties != null && regionProperties.getTimeToLiveSeconds() != null) {
+            timeToLiveSeconds = regionProperties.getTimeToLiveSeconds();
+        }
+        log.debug("Configuring cache region {} with {} entries for {} seconds", region, maxEntries, timeToLiveSeconds);
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(Expirations.timeToLiveExpiration(Duration.of(timeToLiveSeconds, TimeUnit.SECONDS)))
+                .build());
+    }
+}
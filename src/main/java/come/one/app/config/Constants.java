@@ -11,6 +11,12 @@ public final class Constants {
     public static final String SYSTEM_ACCOUNT = "system";
     public static final String ANONYMOUS_USER = "anonymoususer";
     public static final String DEFAULT_LANGUAGE = "en";
+
+    // Spring profile seeding the database with generated data for the load tests
+    public static final String SPRING_PROFILE_LOADTEST = "loadtest";
+
+    // Spring profile creating the beans not needed by the first requests on their first use
+    public static final String SPRING_PROFILE_FAST_STARTUP = "fast-startup";
     
     private Constants() {
     }
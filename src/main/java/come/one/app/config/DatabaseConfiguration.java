@@ -1,7 +1,8 @@
 package come.one.app.config;
 
+import come.one.app.config.liquibase.FastPathSpringLiquibase;
+
 import io.github.jhipster.config.JHipsterConstants;
-import io.github.jhipster.config.liquibase.AsyncSpringLiquibase;
 
 import liquibase.integration.spring.SpringLiquibase;
 import org.slf4j.Logger;
@@ -24,7 +25,7 @@ import javax.sql.DataSource;
 @EnableTransactionManagement
 public class DatabaseConfiguration {
 
-    private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
 
     private final Environment env;
 
@@ -34,10 +35,23 @@ public class DatabaseConfiguration {
 
     @Bean
     public SpringLiquibase liquibase(@Qualifier("taskExecutor") TaskExecutor taskExecutor,
-            DataSource dataSource, LiquibaseProperties liquibaseProperties) {
+            DataSource dataSource, LiquibaseProperties liquibaseProperties, ApplicationProperties applicationProperties) {
+
+        return createLiquibase(taskExecutor, env, dataSource, liquibaseProperties, applicationProperties);
+    }
 
+    /**
+     * Create the Liquibase update, also used by the {@link LiquibaseMigration} command.
+     */
+    static SpringLiquibase createLiquibase(TaskExecutor taskExecutor, Environment env, DataSource dataSource,
+            LiquibaseProperties liquibaseProperties, ApplicationProperties applicationProperties) {
+
+        String changelogHash = null;
+        if (applicationProperties.getLiquibase().isFastPath()) {
+            changelogHash = FastPathSpringLiquibase.computeChangelogHash(DatabaseConfiguration.class.getClassLoader());
+        }
         // Use liquibase.integration.spring.SpringLiquibase if you don't want Liquibase to start asynchronously
-        SpringLiquibase liquibase = new AsyncSpringLiquibase(taskExecutor, env);
+        SpringLiquibase liquibase = new FastPathSpringLiquibase(taskExecutor, env, changelogHash);
         liquibase.setDataSource(dataSource);
         liquibase.setChangeLog("classpath:config/liquibase/master.xml");
         liquibase.setContexts(liquibaseProperties.getContexts());
@@ -0,0 +1,52 @@
+package come.one.app.config;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link MetricRegistry} creating its timers and histograms with an {@link HdrHistogramReservoir}, including the
+ * timers of the @Timed methods.
+ */
+public class HdrHistogramMetricRegistry extends MetricRegistry {
+
+    private final long windowSeconds;
+
+    public HdrHistogramMetricRegistry(long windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    @Override
+    public Timer timer(String name) {
+        Metric metric = getMetrics().get(name);
+        if (metric instanceof Timer) {
+            return (Timer) metric;
+        }
+        return getOrRegister(name, new Timer(new HdrHistogramReservoir(windowSeconds, TimeUnit.SECONDS)), Timer.class);
+    }
+
+    @Override
+    public Histogram histogram(String name) {
+        Metric metric = getMetrics().get(name);
+        if (metric instanceof Histogram) {
+            return (Histogram) metric;
+        }
+        return getOrRegister(name, new Histogram(new HdrHistogramReservoir(windowSeconds, TimeUnit.SECONDS)), Histogram.class);
+    }
+
+    private <T extends Metric> T getOrRegister(String name, T metric, Class<T> type) {
+        try {
+            return register(name, metric);
+        } catch (IllegalArgumentException e) {
+            // registered by another thread in the meantime, or with another type
+            Metric existing = getMetrics().get(name);
+            if (type.isInstance(existing)) {
+                return type.cast(existing);
+            }
+            throw new IllegalArgumentException(name + " is already used for a different type of metric", e);
+        }
+    }
+}
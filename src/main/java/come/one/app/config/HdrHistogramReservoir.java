@@ -0,0 +1,133 @@
+package come.one.app.config;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Reservoir} keeping all the values of a time window in an HdrHistogram.
+ * <p>
+ * Unlike the default exponentially decaying reservoir, the percentiles aren't computed from a sample, so the tail
+ * percentiles are exact to the precision of the histogram, and recording a value doesn't allocate. The snapshots
+ * hold the values of the last complete window: all the readers (JMX, logs, REST, Prometheus) see the same values
+ * until the next window is complete.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+
+    private final long windowNanos;
+
+    private final Clock clock;
+
+    private Histogram intervalHistogram;
+
+    private long windowStart;
+
+    private Snapshot snapshot;
+
+    public HdrHistogramReservoir(long window, TimeUnit unit) {
+        this(window, unit, Clock.defaultClock());
+    }
+
+    public HdrHistogramReservoir(long window, TimeUnit unit, Clock clock) {
+        this.windowNanos = unit.toNanos(window);
+        this.clock = clock;
+        this.windowStart = clock.getTick();
+        this.snapshot = new HistogramSnapshot(new Histogram(SIGNIFICANT_DIGITS));
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        recorder.recordValue(value);
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        long now = clock.getTick();
+        if (now - windowStart >= windowNanos) {
+            intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+            snapshot = new HistogramSnapshot(intervalHistogram.copy());
+            windowStart = now;
+        }
+        return snapshot;
+    }
+
+    private static class HistogramSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        HistogramSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100);
+        }
+
+        /**
+         * @return one value per recorded bucket of the histogram, not all the recorded values
+         */
+        @Override
+        public long[] getValues() {
+            List<Long> values = new ArrayList<>();
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                values.add(value.getValueIteratedTo());
+            }
+            return values.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package come.one.app.config;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * Registers the hit, miss and put counts of the Hibernate second-level cache regions as gauges of the
+ * {@link MetricRegistry}, under "hibernate.cache".
+ * <p>
+ * The counts come from the JCache statistics of the caches, enabled by the {@link CacheConfiguration}, rather than
+ * from the Hibernate statistics, so "hibernate.generate_statistics" can stay off in production.
+ */
+@Component
+public class HibernateCacheMetrics {
+
+    private static final String PROP_METRIC_REG_HIBERNATE_CACHE = "hibernate.cache";
+
+    private final Logger log = LoggerFactory.getLogger(HibernateCacheMetrics.class);
+
+    private final MetricRegistry metricRegistry;
+
+    private final CacheManager cacheManager;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public HibernateCacheMetrics(MetricRegistry metricRegistry, CacheManager cacheManager) {
+        this.metricRegistry = metricRegistry;
+        this.cacheManager = cacheManager;
+    }
+
+    @PostConstruct
+    public void init() {
+        log.debug("Registering Hibernate second-level cache gauges");
+        metricRegistry.register(MetricRegistry.name(PROP_METRIC_REG_HIBERNATE_CACHE, "hits"),
+            (Gauge<Long>) () -> total("CacheHits"));
+        metricRegistry.register(MetricRegistry.name(PROP_METRIC_REG_HIBERNATE_CACHE, "misses"),
+            (Gauge<Long>) () -> total("CacheMisses"));
+        metricRegistry.register(MetricRegistry.name(PROP_METRIC_REG_HIBERNATE_CACHE, "puts"),
+            (Gauge<Long>) () -> total("CachePuts"));
+        for (String region : cacheManager.getCacheNames()) {
+            metricRegistry.register(MetricRegistry.name(PROP_METRIC_REG_HIBERNATE_CACHE, region, "hits"),
+                (Gauge<Long>) () -> count(region, "CacheHits"));
+            metricRegistry.register(MetricRegistry.name(PROP_METRIC_REG_HIBERNATE_CACHE, region, "misses"),
+                (Gauge<Long>) () -> count(region, "CacheMisses"));
+            metricRegistry.register(MetricRegistry.name(PROP_METRIC_REG_HIBERNATE_CACHE, region, "puts"),
+                (Gauge<Long>) () -> count(region, "CachePuts"));
+            metricRegistry.register(MetricRegistry.name(PROP_METRIC_REG_HIBERNATE_CACHE, region, "hit-ratio"),
+                new RatioGauge() {
+                    @Override
+                    protected Ratio getRatio() {
+                        long hits = count(region, "CacheHits");
+                        return Ratio.of(hits, hits + count(region, "CacheMisses"));
+                    }
+                });
+        }
+    }
+
+    private long total(String attribute) {
+        long total = 0;
+        for (String region : cacheManager.getCacheNames()) {
+            total += count(region, attribute);
+        }
+        return total;
+    }
+
+    /**
+     * Read a count of the CacheStatisticsMXBean of a cache, registered by the caching provider.
+     *
+     * @return the count, or 0 if the statistics of the cache aren't available
+     */
+    private long count(String region, String attribute) {
+        try {
+            Set<ObjectName> names = mBeanServer.queryNames(new ObjectName("javax.cache:type=CacheStatistics,Cache="
+                + region + ",*"), null);
+            long count = 0;
+            for (ObjectName name : names) {
+                count += ((Number) mBeanServer.getAttribute(name, attribute)).longValue();
+            }
+            return count;
+        } catch (JMException e) {
+            log.debug("Statistics of the cache {} not available: {}", region, e.getMessage());
+            return 0;
+        }
+    }
+}
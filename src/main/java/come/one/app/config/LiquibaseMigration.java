@@ -0,0 +1,68 @@
+package come.one.app.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import javax.sql.DataSource;
+
+/**
+ * Command applying the Liquibase changelog to the database and exiting, for the deploy pipelines, so the
+ * instances started afterwards find the schema current and skip the update:
+ * <pre>
+ * java -jar traningbackend.war migrate --spring.profiles.active=prod
+ * </pre>
+ * Only the datasource and Liquibase are started, with the configuration of the application.
+ * <p>
+ * Not a {@link org.springframework.context.annotation.Configuration}, so the component scan of the application
+ * leaves it out.
+ */
+@EnableConfigurationProperties({LiquibaseProperties.class, ApplicationProperties.class})
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, DataSourceAutoConfiguration.class})
+public class LiquibaseMigration {
+
+    /**
+     * The program argument running this command instead of the application.
+     */
+    public static final String COMMAND = "migrate";
+
+    private static final Logger log = LoggerFactory.getLogger(LiquibaseMigration.class);
+
+    /**
+     * Run in the calling thread, even with the "dev" profile, so the command only ends once the update is done.
+     */
+    @Bean
+    public SpringLiquibase liquibase(Environment env, DataSource dataSource, LiquibaseProperties liquibaseProperties,
+                                     ApplicationProperties applicationProperties) {
+        return DatabaseConfiguration.createLiquibase(new SyncTaskExecutor(), env, dataSource, liquibaseProperties,
+            applicationProperties);
+    }
+
+    /**
+     * Apply the changelog, the JVM exiting with a status other than 0 if it fails.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        SpringApplication app = new SpringApplicationBuilder(LiquibaseMigration.class)
+            .web(false)
+            .bannerMode(Banner.Mode.OFF)
+            .build();
+        DefaultProfileUtil.addDefaultProfile(app);
+        ConfigurableApplicationContext context = app.run(args);
+        log.info("Database schema up to date");
+        System.exit(SpringApplication.exit(context));
+    }
+}
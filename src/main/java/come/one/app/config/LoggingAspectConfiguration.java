@@ -1,19 +1,41 @@
 package come.one.app.config;
 
 import come.one.app.aop.logging.LoggingAspect;
+import come.one.app.aop.logging.LoggingAspectManager;
 
-import io.github.jhipster.config.JHipsterConstants;
-
+import com.codahale.metrics.MetricRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 
+/**
+ * Configuration of the {@link LoggingAspect}, enabled when "application.logging-aspect.mode" isn't "off".
+ */
 @Configuration
 @EnableAspectJAutoProxy
+@ConditionalOnExpression("!'${application.logging-aspect.mode:off}'.equalsIgnoreCase('off')")
 public class LoggingAspectConfiguration {
 
     @Bean
-    @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    public LoggingAspect loggingAspect(Environment env, ObjectProvider<MetricRegistry> metricRegistry,
+                                       ApplicationProperties applicationProperties) {
+        return new LoggingAspect(env, metricRegistry, applicationProperties.getLoggingAspect().getMode());
+    }
+
+    @Bean
+    public Advisor loggingAspectAdvisor(LoggingAspect loggingAspect) {
+        return new DefaultPointcutAdvisor(LoggingAspect.pointcut(), loggingAspect);
+    }
+
+    @Bean
+    public LoggingAspectManager loggingAspectManager(LoggingAspect loggingAspect,
+                                                     @Qualifier("loggingAspectAdvisor") Advisor loggingAspectAdvisor,
+                                                     ApplicationContext applicationContext) {
+        return new LoggingAspectManager(loggingAspect, loggingAspectAdvisor, applicationContext);
     }
 }
@@ -0,0 +1,25 @@
+package come.one.app.config;
+
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+import org.hibernate.cache.spi.CacheDataDescription;
+
+import javax.cache.Cache;
+import java.util.Properties;
+
+/**
+ * Hibernate region factory which refuses to create the caches it doesn't find: a cache created on the fly would
+ * get the provider defaults, which means no size limit and no expiry.
+ * <p>
+ * All the caches are created upfront by the {@link CacheConfiguration}.
+ */
+@SuppressWarnings("serial")
+public class NoDefaultJCacheRegionFactory extends JCacheRegionFactory {
+
+    public static final String EXCEPTION_MESSAGE = "All Hibernate caches should be created upfront. " +
+        "Please update CacheConfiguration.java to add";
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName, Properties properties, CacheDataDescription metadata) {
+        throw new IllegalStateException(EXCEPTION_MESSAGE + " " + regionName);
+    }
+}
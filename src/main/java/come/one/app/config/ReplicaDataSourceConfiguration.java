@@ -0,0 +1,91 @@
+package come.one.app.config;
+
+import come.one.app.config.datasource.ReplicaRoutingDataSource;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes the read-only transactions to the replicas configured in "application.datasource.replicas", and the
+ * others to the "spring.datasource" primary.
+ * <p>
+ * Without replicas, this configuration is skipped and Spring Boot creates the single primary pool.
+ */
+@Configuration
+@ConditionalOnProperty("application.datasource.replicas[0].url")
+public class ReplicaDataSourceConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaDataSourceConfiguration.class);
+
+    private final ApplicationProperties.Datasource properties;
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReplicaDataSourceConfiguration(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getDatasource();
+    }
+
+    /**
+     * The primary pool, configured as Spring Boot does without replicas.
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return (HikariDataSource) dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             MetricRegistry metricRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ApplicationProperties.Datasource.Replica replica = properties.getReplicas().get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("Replica-" + (i + 1));
+            config.setJdbcUrl(replica.getUrl());
+            config.setUsername(replica.getUsername());
+            config.setPassword(replica.getPassword());
+            config.setMaximumPoolSize(replica.getMaximumPoolSize());
+            config.setReadOnly(true);
+            config.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            config.setMetricRegistry(metricRegistry);
+            replicas.add(new HikariDataSource(config));
+        }
+        log.debug("Routing the read-only transactions to {} replicas, {}", replicas.size(), properties.getLoadBalancing());
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+            properties.getLoadBalancing(), properties.getMaxLagSeconds(), metricRegistry);
+        return replicaRoutingDataSource;
+    }
+
+    /**
+     * The DataSource of the application: the connections are only obtained on their first statement, once the
+     * transaction is known to be read-only or not.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.check-interval-ms:5000}")
+    public void checkReplicas() {
+        if (replicaRoutingDataSource != null) {
+            replicaRoutingDataSource.checkReplicas();
+        }
+    }
+}
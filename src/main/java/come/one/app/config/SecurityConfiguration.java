@@ -3,7 +3,12 @@ package come.one.app.config;
 import come.one.app.security.*;
 import come.one.app.security.jwt.*;
 
+import com.codahale.metrics.MetricRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -31,6 +36,8 @@ import javax.annotation.PostConstruct;
 @EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
+    private final Logger log = LoggerFactory.getLogger(SecurityConfiguration.class);
+
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
     private final UserDetailsService userDetailsService;
@@ -41,12 +48,22 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     private final SecurityProblemSupport problemSupport;
 
-    public SecurityConfiguration(AuthenticationManagerBuilder authenticationManagerBuilder, UserDetailsService userDetailsService,TokenProvider tokenProvider,CorsFilter corsFilter, SecurityProblemSupport problemSupport) {
+    private final ApplicationProperties applicationProperties;
+
+    private final MetricRegistry metricRegistry;
+
+    private final ServerProperties serverProperties;
+
+    public SecurityConfiguration(AuthenticationManagerBuilder authenticationManagerBuilder, UserDetailsService userDetailsService,TokenProvider tokenProvider,CorsFilter corsFilter, SecurityProblemSupport problemSupport,
+            ApplicationProperties applicationProperties, MetricRegistry metricRegistry, ServerProperties serverProperties) {
         this.authenticationManagerBuilder = authenticationManagerBuilder;
         this.userDetailsService = userDetailsService;
         this.tokenProvider = tokenProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
+        this.applicationProperties = applicationProperties;
+        this.metricRegistry = metricRegistry;
+        this.serverProperties = serverProperties;
     }
 
     @PostConstruct
@@ -60,9 +77,29 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         }
     }
 
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        ApplicationProperties.Security.PasswordEncoder properties = applicationProperties.getSecurity().getPasswordEncoder();
+        int workerThreads = undertowWorkerThreads();
+        int queueCapacity = BoundedPasswordEncoder.boundQueueCapacity(properties.getQueueCapacity(), properties.getPoolSize(), workerThreads);
+        if (queueCapacity < properties.getQueueCapacity()) {
+            log.info("Password encoder queue capacity lowered from {} to {}, below the {} Undertow worker threads",
+                properties.getQueueCapacity(), queueCapacity, workerThreads);
+        }
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(properties.getStrength()), properties.getPoolSize(),
+            queueCapacity, properties.getRetryAfterSeconds(), metricRegistry);
+    }
+
+    /**
+     * @return the "server.undertow.worker-threads" setting, or the Undertow default: 8 per I/O thread
+     */
+    private int undertowWorkerThreads() {
+        ServerProperties.Undertow undertow = serverProperties.getUndertow();
+        if (undertow.getWorkerThreads() != null) {
+            return undertow.getWorkerThreads();
+        }
+        int ioThreads = undertow.getIoThreads() != null ? undertow.getIoThreads() : Math.max(Runtime.getRuntime().availableProcessors(), 2);
+        return ioThreads * 8;
     }
 
     @Override
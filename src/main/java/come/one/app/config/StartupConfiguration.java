@@ -0,0 +1,64 @@
+package come.one.app.config;
+
+import come.one.app.config.startup.LazyInitBeanFactoryPostProcessor;
+import come.one.app.config.startup.StartupEndpoint;
+import come.one.app.config.startup.StartupTimeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Configuration of the startup: the beans created on first use, listed in "application.startup.lazy-beans" by the
+ * "fast-startup" profile, and the {@link StartupTimeline} of the beans, at /management/startup.
+ */
+@Configuration
+public class StartupConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(StartupConfiguration.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    public StartupConfiguration(ApplicationProperties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Bean
+    public static StartupTimeline startupTimeline() {
+        return new StartupTimeline();
+    }
+
+    /**
+     * Read from the environment, as the bean factory post processors run before the properties are bound.
+     */
+    @Bean
+    public static LazyInitBeanFactoryPostProcessor lazyInitBeanFactoryPostProcessor(Environment env) {
+        String beanNames = env.getProperty("application.startup.lazy-beans", "");
+        return new LazyInitBeanFactoryPostProcessor(Arrays.asList(StringUtils.tokenizeToStringArray(beanNames, ",")));
+    }
+
+    @Bean
+    public StartupEndpoint startupEndpoint(StartupTimeline startupTimeline) {
+        return new StartupEndpoint(startupTimeline);
+    }
+
+    /**
+     * Exit once started, for the training run of the class data sharing archive.
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (applicationProperties.getStartup().isExitOnReady()) {
+            log.info("Started in {} ms, exiting", ManagementFactory.getRuntimeMXBean().getUptime());
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
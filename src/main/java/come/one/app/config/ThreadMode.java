@@ -0,0 +1,18 @@
+package come.one.app.config;
+
+/**
+ * The threads running the servlet requests and the @Async methods.
+ */
+public enum ThreadMode {
+
+    /**
+     * The Undertow worker pool for the requests, and the "jhipster.async" thread pool for the @Async methods.
+     */
+    PLATFORM,
+
+    /**
+     * A new virtual thread per request and per @Async call, so a blocking call doesn't hold a platform thread.
+     * Needs Java 21 or later, the platform threads are used otherwise.
+     */
+    VIRTUAL
+}
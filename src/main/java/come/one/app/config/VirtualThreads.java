@@ -0,0 +1,121 @@
+package come.one.app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executors of virtual threads, created through reflection as the application is compiled for Java 8, and only
+ * available when it runs on Java 21 or later.
+ * <p>
+ * A virtual thread blocked inside a synchronized block or method pins its carrier platform thread, which can't
+ * run other virtual threads meanwhile. Before Java 24, such pinning is reported in the logs with the stack of the
+ * virtual thread, when "application.threads.trace-pinned-threads" is set: blocking calls made while holding a
+ * monitor should then be moved to a {@link java.util.concurrent.locks.ReentrantLock}. From Java 24, synchronized
+ * doesn't pin anymore, and the remaining cases are reported by the "jdk.VirtualThreadPinned" JFR event.
+ */
+public final class VirtualThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final String TRACE_PINNED_THREADS = "jdk.tracePinnedThreads";
+
+    private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+
+    private static final Method NAME = method("java.lang.Thread$Builder", "name", String.class, long.class);
+
+    private static final Method FACTORY = method("java.lang.Thread$Builder", "factory");
+
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = method(Executors.class, "newThreadPerTaskExecutor",
+        ThreadFactory.class);
+
+    private static final Method IS_VIRTUAL = method(Thread.class, "isVirtual");
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the virtual threads are available
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null && NAME != null && FACTORY != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Tell whether the virtual threads should be used, and set up the tracing of the pinned threads if they are.
+     *
+     * @param threads the threads configuration
+     * @return true if the virtual threads are configured and available
+     */
+    public static boolean isEnabled(ApplicationProperties.Threads threads) {
+        if (threads.getMode() != ThreadMode.VIRTUAL) {
+            return false;
+        }
+        if (!isSupported()) {
+            log.warn("Virtual threads need Java 21 or later, running on Java {}: using the platform threads",
+                System.getProperty("java.specification.version"));
+            return false;
+        }
+        // read when the first virtual thread is created, and only before Java 24
+        if (threads.isTracePinnedThreads() && System.getProperty(TRACE_PINNED_THREADS) == null) {
+            System.setProperty(TRACE_PINNED_THREADS, "short");
+        }
+        return true;
+    }
+
+    /**
+     * Create an executor running each task in a new virtual thread.
+     *
+     * @param namePrefix the prefix of the thread names, followed by a counter
+     * @return the executor
+     * @throws IllegalStateException if the virtual threads aren't available
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later");
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) FACTORY.invoke(builder);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * @param thread a thread
+     * @return true if the thread is a virtual thread
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            return false;
+        }
+    }
+
+    private static Method method(String className, String name, Class<?>... parameterTypes) {
+        try {
+            return method(Class.forName(className), name, parameterTypes);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
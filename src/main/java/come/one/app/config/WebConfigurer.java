@@ -26,6 +26,7 @@ import org.springframework.http.MediaType;
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Executor;
 import javax.servlet.*;
 
 /**
@@ -40,12 +41,15 @@ public class WebConfigurer implements ServletContextInitializer, EmbeddedServlet
 
     private final JHipsterProperties jHipsterProperties;
 
+    private final ApplicationProperties applicationProperties;
+
     private MetricRegistry metricRegistry;
 
-    public WebConfigurer(Environment env, JHipsterProperties jHipsterProperties) {
+    public WebConfigurer(Environment env, JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
 
         this.env = env;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -88,6 +92,20 @@ public class WebConfigurer implements ServletContextInitializer, EmbeddedServlet
                 .addBuilderCustomizers(builder ->
                     builder.setServerOption(UndertowOptions.ENABLE_HTTP2, true));
         }
+
+        /*
+         * Run the servlet requests on virtual threads instead of the Undertow worker threads, which are then only
+         * used to hand the requests over.
+         */
+        if (container instanceof UndertowEmbeddedServletContainerFactory &&
+            VirtualThreads.isEnabled(applicationProperties.getThreads())) {
+
+            Executor executor = VirtualThreads.newVirtualThreadPerTaskExecutor("undertow-virtual-");
+            ((UndertowEmbeddedServletContainerFactory) container)
+                .addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo
+                    .setExecutor(executor)
+                    .setAsyncExecutor(executor));
+        }
     }
 
     private void setLocationForStaticAssets(ConfigurableEmbeddedServletContainer container) {
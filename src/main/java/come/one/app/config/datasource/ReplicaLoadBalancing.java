@@ -0,0 +1,17 @@
+package come.one.app.config.datasource;
+
+/**
+ * How the {@link ReplicaRoutingDataSource} picks the replica of a read-only transaction.
+ */
+public enum ReplicaLoadBalancing {
+
+    /**
+     * Each replica in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * The replica with the fewest connections in use.
+     */
+    LEAST_CONNECTIONS
+}
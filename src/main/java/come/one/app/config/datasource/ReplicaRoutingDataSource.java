@@ -0,0 +1,221 @@
+package come.one.app.config.datasource;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource sending the connections of read-only transactions to replicas, and all the others to the primary.
+ * <p>
+ * The routing is decided when the connection is obtained, so this DataSource must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction managers get their
+ * connection before the transaction is marked as read-only.
+ * <p>
+ * A replica whose connection fails is left out until {@link #checkReplicas()} can connect to it again, and so is a
+ * replica lagging more than the maximum lag behind the primary. When no replica is available, the read-only
+ * transactions use the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final String REPLICA_STATUS_QUERY = "SHOW SLAVE STATUS";
+
+    private static final String REPLICA_LAG_COLUMN = "Seconds_Behind_Master";
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final ReplicaLoadBalancing loadBalancing;
+
+    private final long maxLagSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReplicaLoadBalancing loadBalancing, long maxLagSeconds,
+                                    MetricRegistry metricRegistry) {
+        this.primary = primary;
+        this.loadBalancing = loadBalancing;
+        this.maxLagSeconds = maxLagSeconds;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicas.get(i));
+            this.replicas.add(replica);
+            metricRegistry.register(MetricRegistry.name(ReplicaRoutingDataSource.class, replica.name, "active"),
+                (Gauge<Integer>) replica.active::get);
+            metricRegistry.register(MetricRegistry.name(ReplicaRoutingDataSource.class, replica.name, "available"),
+                (Gauge<Boolean>) replica::isAvailable);
+        }
+        this.fallbacks = metricRegistry.counter(MetricRegistry.name(ReplicaRoutingDataSource.class, "fallbacks"));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            for (Replica replica : candidates()) {
+                try {
+                    return replica.getConnection(username, password);
+                } catch (SQLException e) {
+                    replica.down = true;
+                    log.warn("Could not connect to {}, leaving it out until it is back: {}", replica.name, e.getMessage());
+                }
+            }
+            fallbacks.inc();
+        }
+        return username == null ? primary.getConnection() : primary.getConnection(username, password);
+    }
+
+    /**
+     * @return the available replicas, in the order they should be tried
+     */
+    private List<Replica> candidates() {
+        List<Replica> available = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isAvailable()) {
+                available.add(replica);
+            }
+        }
+        if (available.size() > 1) {
+            if (loadBalancing == ReplicaLoadBalancing.LEAST_CONNECTIONS) {
+                available.sort(Comparator.comparingInt(replica -> replica.active.get()));
+            } else {
+                Collections.rotate(available, -Math.floorMod(next.getAndIncrement(), available.size()));
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Check the connection to each replica and its replication lag, putting it back or leaving it out.
+     * <p>
+     * The lag is read on MySQL replicas only, the other databases being considered up to date.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Long lag = lagSeconds(connection);
+                boolean lagging = lag == null || lag > maxLagSeconds;
+                if (lagging && !replica.lagging) {
+                    log.warn("{} is {} behind the primary, leaving it out", replica.name,
+                        lag == null ? "not replicating" : lag + " seconds");
+                } else if (!lagging && (replica.lagging || replica.down)) {
+                    log.info("{} is back", replica.name);
+                }
+                replica.lagging = lagging;
+                replica.down = false;
+            } catch (SQLException e) {
+                if (!replica.down) {
+                    log.warn("Could not connect to {}, leaving it out until it is back: {}", replica.name, e.getMessage());
+                }
+                replica.down = true;
+            }
+        }
+    }
+
+    /**
+     * @return the replication lag of the database of the connection, or null if its replication is stopped
+     */
+    private Long lagSeconds(Connection connection) throws SQLException {
+        if (!"MySQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return 0L;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REPLICA_STATUS_QUERY)) {
+            if (!resultSet.next()) {
+                // not configured as a replica
+                return 0L;
+            }
+            long lag = resultSet.getLong(REPLICA_LAG_COLUMN);
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    /**
+     * Close the replica pools, the primary being closed by its own bean.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                ((Closeable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private static class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final AtomicInteger active = new AtomicInteger();
+
+        private volatile boolean down;
+
+        private volatile boolean lagging;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isAvailable() {
+            return !down && !lagging;
+        }
+
+        /**
+         * @return a connection counted as active until it is closed
+         */
+        Connection getConnection(String username, String password) throws SQLException {
+            Connection connection = username == null ? dataSource.getConnection() :
+                dataSource.getConnection(username, password);
+            active.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        active.decrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+        }
+    }
+}
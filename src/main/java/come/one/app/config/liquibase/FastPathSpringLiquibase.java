@@ -0,0 +1,172 @@
+package come.one.app.config.liquibase;
+
+import io.github.jhipster.config.liquibase.AsyncSpringLiquibase;
+
+import liquibase.Liquibase;
+import liquibase.exception.LiquibaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Liquibase update skipped when the changelog hasn't changed since the last update of the database.
+ * <p>
+ * A full update parses the whole changelog, takes the Liquibase lock and compares every changeset with the
+ * DATABASECHANGELOG table. Instead, the hash of the changelog files and the contexts are
+ * compared with the marker written in the jhi_schema_marker table after the last update, and the update only runs
+ * when they differ, or when there is no marker yet. The changelog files are hashed at startup, in the same way
+ * whether they are packaged or not, and the update always runs when their hash is unknown.
+ */
+public class FastPathSpringLiquibase extends AsyncSpringLiquibase {
+
+    private static final String CHANGELOG_DIRECTORY = "config/liquibase";
+
+    private static final String MARKER_ID = "liquibase";
+
+    private final Logger log = LoggerFactory.getLogger(FastPathSpringLiquibase.class);
+
+    private final String changelogHash;
+
+    /**
+     * @param changelogHash the hash of the changelog, or null to always run the update
+     */
+    public FastPathSpringLiquibase(TaskExecutor taskExecutor, Environment env, String changelogHash) {
+        super(taskExecutor, env);
+        this.changelogHash = changelogHash;
+    }
+
+    /**
+     * Compute the hash of the changelog files, read from the classpath the same way whether they are plain files,
+     * e.g. in an IDE run, or packaged in a jar.
+     *
+     * @return the SHA-256 of the relative paths and contents of the files of config/liquibase, or null if there is
+     * none or if they couldn't be read
+     */
+    public static String computeChangelogHash(ClassLoader classLoader) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            SortedMap<String, Resource> files = new TreeMap<>();
+            for (Resource resource : new PathMatchingResourcePatternResolver(classLoader)
+                .getResources(ResourceUtils.CLASSPATH_URL_PREFIX + CHANGELOG_DIRECTORY + "/**")) {
+                String url = resource.getURL().toString();
+                // the jars also list their directories
+                if (!url.endsWith("/")) {
+                    files.put(url.substring(url.lastIndexOf(CHANGELOG_DIRECTORY + "/") + CHANGELOG_DIRECTORY.length() + 1), resource);
+                }
+            }
+            if (files.isEmpty()) {
+                return null;
+            }
+            for (Map.Entry<String, Resource> file : files.entrySet()) {
+                digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = file.getValue().getInputStream()) {
+                    digest.update(StreamUtils.copyToByteArray(in));
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+
+    @Override
+    protected void performUpdate(Liquibase liquibase) throws LiquibaseException {
+        if (changelogHash == null) {
+            super.performUpdate(liquibase);
+            return;
+        }
+        if (isCurrent()) {
+            log.info("Liquibase changelog {} already applied, skipping the update", changelogHash);
+            return;
+        }
+        super.performUpdate(liquibase);
+        writeMarker();
+    }
+
+    /**
+     * @return true if the marker has the hash and the contexts of this changelog
+     */
+    private boolean isCurrent() {
+        String sql = "select changelog_hash, contexts from " + markerTable() + " where id = ?";
+        try (Connection connection = getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, MARKER_ID);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && changelogHash.equals(resultSet.getString(1)) &&
+                    contexts().equals(resultSet.getString(2));
+            }
+        } catch (SQLException e) {
+            // the table is created by the first update
+            log.debug("No Liquibase marker to read: {}", e.toString());
+            return false;
+        }
+    }
+
+    private void writeMarker() {
+        Timestamp now = Timestamp.from(Instant.now());
+        try (Connection connection = getDataSource().getConnection()) {
+            int updated;
+            try (PreparedStatement statement = connection.prepareStatement("update " + markerTable() +
+                " set changelog_hash = ?, contexts = ?, updated_date = ? where id = ?")) {
+                statement.setString(1, changelogHash);
+                statement.setString(2, contexts());
+                statement.setTimestamp(3, now);
+                statement.setString(4, MARKER_ID);
+                updated = statement.executeUpdate();
+            }
+            if (updated == 0) {
+                try (PreparedStatement statement = connection.prepareStatement("insert into " + markerTable() +
+                    " (id, changelog_hash, contexts, updated_date) values (?, ?, ?, ?)")) {
+                    statement.setString(1, MARKER_ID);
+                    statement.setString(2, changelogHash);
+                    statement.setString(3, contexts());
+                    statement.setTimestamp(4, now);
+                    statement.executeUpdate();
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            // the next startup runs the update again
+            log.warn("Could not write the Liquibase marker: {}", e.toString());
+        }
+    }
+
+    private String markerTable() {
+        return getDefaultSchema() == null ? "jhi_schema_marker" : getDefaultSchema() + ".jhi_schema_marker";
+    }
+
+    private String contexts() {
+        return getContexts() == null ? "" : getContexts();
+    }
+}
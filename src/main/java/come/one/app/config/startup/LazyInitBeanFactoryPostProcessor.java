@@ -0,0 +1,39 @@
+package come.one.app.config.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+import java.util.Collection;
+
+/**
+ * Marks some singleton beans lazy, so they are created on first use instead of at startup.
+ * <p>
+ * A lazy bean is still created at startup when an eager bean depends on it, unless the dependency is declared
+ * {@link org.springframework.context.annotation.Lazy}, which then injects a proxy creating it on its first call.
+ */
+public class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    private final Logger log = LoggerFactory.getLogger(LazyInitBeanFactoryPostProcessor.class);
+
+    private final Collection<String> beanNames;
+
+    public LazyInitBeanFactoryPostProcessor(Collection<String> beanNames) {
+        this.beanNames = beanNames;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String beanName : beanNames) {
+            if (beanFactory.containsBeanDefinition(beanName)) {
+                log.debug("Creating the {} bean on first use", beanName);
+                beanFactory.getBeanDefinition(beanName).setLazyInit(true);
+            } else {
+                // such as the beans of a disabled profile
+                log.debug("No {} bean to create lazily", beanName);
+            }
+        }
+    }
+}
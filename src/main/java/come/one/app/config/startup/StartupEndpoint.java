@@ -0,0 +1,21 @@
+package come.one.app.config.startup;
+
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+
+/**
+ * Actuator endpoint of the {@link StartupTimeline}, at /management/startup.
+ */
+public class StartupEndpoint extends AbstractEndpoint<StartupTimeline.Report> {
+
+    private final StartupTimeline startupTimeline;
+
+    public StartupEndpoint(StartupTimeline startupTimeline) {
+        super("startup");
+        this.startupTimeline = startupTimeline;
+    }
+
+    @Override
+    public StartupTimeline.Report invoke() {
+        return startupTimeline.getReport();
+    }
+}
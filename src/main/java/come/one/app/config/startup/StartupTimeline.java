@@ -0,0 +1,220 @@
+package come.one.app.config.startup;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.util.ClassUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the time spent creating each bean, from its instantiation to the end of its initialization.
+ * <p>
+ * A bean creates its dependencies while it is being created, so each bean has a total time, including its
+ * dependencies created meanwhile, and a self time, without them: the self times add up to the time spent creating
+ * the beans. Registered first among the bean post processors, it sees the beans created after the post processors,
+ * including the lazy ones created on first use.
+ */
+public class StartupTimeline extends InstantiationAwareBeanPostProcessorAdapter
+    implements PriorityOrdered, ApplicationListener<ApplicationReadyEvent> {
+
+    /**
+     * Beans recorded at most, as prototype beans are recorded each time they are created.
+     */
+    private static final int MAX_BEANS = 10000;
+
+    private final long jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    /**
+     * The nano time of the JVM start, to measure the times since then with nano times.
+     */
+    private final long jvmStartNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(
+        ManagementFactory.getRuntimeMXBean().getUptime());
+
+    private final ThreadLocal<Deque<Frame>> creating = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final List<BeanInit> beans = new ArrayList<>();
+
+    private volatile long readyNanos;
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+        creating.get().push(new Frame(beanName, beanClass, System.nanoTime()));
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Deque<Frame> frames = creating.get();
+        Frame frame = frames.peek();
+        // also called for the objects of the factory beans, and the inner beans, which weren't pushed
+        if (frame == null || !frame.name.equals(beanName)) {
+            return bean;
+        }
+        frames.pop();
+        long end = System.nanoTime();
+        long total = end - frame.start;
+        Frame parent = frames.peek();
+        if (parent != null) {
+            parent.children += total;
+        }
+        BeanInit init = new BeanInit(beanName, ClassUtils.getUserClass(frame.type).getName(),
+            frame.start - jvmStartNanos, total, total - frame.children, Thread.currentThread().getName());
+        synchronized (beans) {
+            if (beans.size() < MAX_BEANS) {
+                beans.add(init);
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (readyNanos == 0) {
+            readyNanos = System.nanoTime() - jvmStartNanos;
+        }
+    }
+
+    /**
+     * @return the beans created so far, the slowest first, by self time
+     */
+    public Report getReport() {
+        List<BeanInit> slowestFirst;
+        synchronized (beans) {
+            slowestFirst = new ArrayList<>(beans);
+        }
+        slowestFirst.sort(Comparator.comparingLong((BeanInit init) -> init.selfNanos).reversed());
+        return new Report(Instant.ofEpochMilli(jvmStartTime), readyNanos == 0 ? null : millis(readyNanos),
+            slowestFirst);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 100_000.0) / 10.0;
+    }
+
+    private static class Frame {
+
+        private final String name;
+
+        private final Class<?> type;
+
+        private final long start;
+
+        private long children;
+
+        Frame(String name, Class<?> type, long start) {
+            this.name = name;
+            this.type = type;
+            this.start = start;
+        }
+    }
+
+    /**
+     * The startup report, in milliseconds since the JVM start.
+     */
+    public static class Report {
+
+        private final Instant jvmStartTime;
+
+        private final Double readyMs;
+
+        private final double beansMs;
+
+        private final List<BeanInit> beans;
+
+        Report(Instant jvmStartTime, Double readyMs, List<BeanInit> beans) {
+            this.jvmStartTime = jvmStartTime;
+            this.readyMs = readyMs;
+            this.beansMs = millis(beans.stream().mapToLong(init -> init.selfNanos).sum());
+            this.beans = beans;
+        }
+
+        public Instant getJvmStartTime() {
+            return jvmStartTime;
+        }
+
+        /**
+         * @return the time at which the application was ready to serve requests, null while it is starting
+         */
+        public Double getReadyMs() {
+            return readyMs;
+        }
+
+        /**
+         * @return the time spent creating the beans, in all threads
+         */
+        public double getBeansMs() {
+            return beansMs;
+        }
+
+        public List<BeanInit> getBeans() {
+            return beans;
+        }
+    }
+
+    /**
+     * The creation of a bean.
+     */
+    public static class BeanInit {
+
+        private final String name;
+
+        private final String type;
+
+        private final long startNanos;
+
+        private final long totalNanos;
+
+        private final long selfNanos;
+
+        private final String thread;
+
+        BeanInit(String name, String type, long startNanos, long totalNanos, long selfNanos, String thread) {
+            this.name = name;
+            this.type = type;
+            this.startNanos = startNanos;
+            this.totalNanos = totalNanos;
+            this.selfNanos = selfNanos;
+            this.thread = thread;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public double getStartMs() {
+            return millis(startNanos);
+        }
+
+        public double getTotalMs() {
+            return millis(totalNanos);
+        }
+
+        public double getSelfMs() {
+            return millis(selfNanos);
+        }
+
+        public String getThread() {
+            return thread;
+        }
+    }
+}
@@ -17,7 +17,8 @@ import java.util.Map;
 public class PersistentAuditEvent implements Serializable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persistentAuditEventSequenceGenerator")
+    @SequenceGenerator(name = "persistentAuditEventSequenceGenerator", sequenceName = "jhi_persistent_audit_event_seq", allocationSize = 50)
     @Column(name = "event_id")
     private Long id;
 
@@ -0,0 +1,49 @@
+package come.one.app.repository;
+
+import come.one.app.domain.Department;
+import come.one.app.service.dto.DepartmentDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Custom queries for the Department entity, which can't be expressed with Spring Data JPA derived queries.
+ */
+public interface DepartmentRepositoryCustom {
+
+    /**
+     * Return a window of the departments matching the specification, without running a count query.
+     *
+     * @param spec the specification the departments should match, may be null
+     * @param sort the ordering of the window, may be null
+     * @param offset the index of the first row to return
+     * @param limit the maximum number of rows to return
+     * @return the matching departments
+     */
+    List<Department> findAll(Specification<Department> spec, Sort sort, int offset, int limit);
+
+    /**
+     * Return a window of the departments matching the specification, selected straight into DTOs: no entity is
+     * created nor tracked by the persistence context.
+     *
+     * @param spec the specification the departments should match, may be null
+     * @param sort the ordering of the window, may be null
+     * @param offset the index of the first row to return
+     * @param limit the maximum number of rows to return
+     * @return the matching departments
+     */
+    List<DepartmentDTO> findAllAsDto(Specification<Department> spec, Sort sort, int offset, int limit);
+
+    /**
+     * Return a page of the departments matching the specification, selected straight into DTOs. The count query
+     * is only run when the total can't be deduced from the page.
+     *
+     * @param spec the specification the departments should match, may be null
+     * @param pageable the page to return
+     * @return the matching departments
+     */
+    Page<DepartmentDTO> findAllAsDto(Specification<Department> spec, Pageable pageable);
+}
@@ -0,0 +1,98 @@
+package come.one.app.repository;
+
+import come.one.app.domain.Department;
+import come.one.app.domain.Department_;
+import come.one.app.service.dto.DepartmentDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Implementation of the {@link DepartmentRepositoryCustom} queries, picked up by Spring Data JPA for the
+ * {@link DepartmentRepository}.
+ */
+public class DepartmentRepositoryImpl implements DepartmentRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public DepartmentRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Department> findAll(Specification<Department> spec, Sort sort, int offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Department> query = builder.createQuery(Department.class);
+        Root<Department> root = query.from(Department.class);
+        where(spec, root, query, builder);
+        query.select(root);
+        if (sort != null) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public List<DepartmentDTO> findAllAsDto(Specification<Department> spec, Sort sort, int offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DepartmentDTO> query = builder.createQuery(DepartmentDTO.class);
+        Root<Department> root = query.from(Department.class);
+        where(spec, root, query, builder);
+        query.multiselect(root.get(Department_.id), root.get(Department_.version), root.get(Department_.name),
+            root.get(Department_.area));
+        if (sort != null) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public Page<DepartmentDTO> findAllAsDto(Specification<Department> spec, Pageable pageable) {
+        List<DepartmentDTO> content = findAllAsDto(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        long total;
+        if (!content.isEmpty() && content.size() < pageable.getPageSize()) {
+            // the last page, so the total is known
+            total = pageable.getOffset() + content.size();
+        } else if (content.isEmpty() && pageable.getOffset() == 0) {
+            total = 0;
+        } else {
+            total = count(spec);
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private long count(Specification<Department> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Department> root = query.from(Department.class);
+        where(spec, root, query, builder);
+        query.select(query.isDistinct() ? builder.countDistinct(root) : builder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(Specification<Department> spec, Root<Department> root, CriteriaQuery<?> query,
+                              CriteriaBuilder builder) {
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+}
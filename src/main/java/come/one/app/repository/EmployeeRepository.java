@@ -5,12 +5,28 @@ import org.springframework.stereotype.Repository;
 
 import org.springframework.data.jpa.repository.*;
 
+import java.util.List;
+
 
 /**
  * Spring Data JPA repository for the Employee entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>, EmployeeRepositoryCustom {
+
+    /**
+     * @return the number of employees of each department and age, as (department id, age, count) rows
+     */
+    @Query("select employee.department.id, employee.age, count(employee) from Employee employee " +
+        "where employee.department is not null group by employee.department.id, employee.age")
+    List<Object[]> countByDepartmentAndAge();
 
+    /**
+     * @return the version of the employee and the id and version of its department, as a single
+     * (version, department id, department version) row, or no row if there is no such employee
+     */
+    @Query("select employee.version, department.id, department.version from Employee employee " +
+        "left join employee.department department where employee.id = ?1")
+    List<Object[]> findVersionsById(Long id);
 }
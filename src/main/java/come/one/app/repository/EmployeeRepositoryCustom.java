@@ -0,0 +1,76 @@
+package come.one.app.repository;
+
+import come.one.app.domain.Employee;
+import come.one.app.service.dto.EmployeeDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Custom queries for the Employee entity, which can't be expressed with Spring Data JPA derived queries.
+ */
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Return a window of the employees matching the specification, without running a count query.
+     *
+     * @param spec the specification the employees should match, may be null
+     * @param sort the ordering of the window, may be null
+     * @param offset the index of the first row to return
+     * @param limit the maximum number of rows to return
+     * @return the matching employees
+     */
+    List<Employee> findAll(Specification<Employee> spec, Sort sort, int offset, int limit);
+
+    /**
+     * Pass each employee matching the specification to the action, reading them with a forward-only cursor,
+     * so they are never all held in memory.
+     * <p>
+     * The employees are read-only, and the persistence context is cleared every {@code clearInterval} rows,
+     * so they are detached once the action has been run: this must be called within a transaction holding
+     * no pending changes.
+     *
+     * @param spec the specification the employees should match, may be null
+     * @param sort the ordering of the employees, may be null
+     * @param fetchSize the number of rows the JDBC driver should fetch at once
+     * @param clearInterval the number of rows after which the persistence context is cleared
+     * @param action the action to run on each employee
+     */
+    void scrollAll(Specification<Employee> spec, Sort sort, int fetchSize, int clearInterval, Consumer<Employee> action);
+
+    /**
+     * Return a window of the employees matching the specification, selected with their department straight into
+     * DTOs: no entity is created nor tracked by the persistence context.
+     *
+     * @param spec the specification the employees should match, may be null
+     * @param sort the ordering of the window, may be null
+     * @param offset the index of the first row to return
+     * @param limit the maximum number of rows to return
+     * @return the matching employees
+     */
+    List<EmployeeDTO> findAllAsDto(Specification<Employee> spec, Sort sort, int offset, int limit);
+
+    /**
+     * Return a page of the employees matching the specification, selected with their department straight into
+     * DTOs. The count query is only run when the total can't be deduced from the page.
+     *
+     * @param spec the specification the employees should match, may be null
+     * @param pageable the page to return
+     * @return the matching employees
+     */
+    Page<EmployeeDTO> findAllAsDto(Specification<Employee> spec, Pageable pageable);
+
+    /**
+     * Pass the id and name of each employee to the action, ordered by id, reading them with a forward-only cursor.
+     * No entity is loaded, so the persistence context stays empty.
+     *
+     * @param fetchSize the number of rows the JDBC driver should fetch at once
+     * @param action the action to run on each employee id and name
+     */
+    void scrollNames(int fetchSize, BiConsumer<Long, String> action);
+}
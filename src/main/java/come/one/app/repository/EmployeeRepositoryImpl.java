@@ -0,0 +1,152 @@
+package come.one.app.repository;
+
+import come.one.app.domain.Department;
+import come.one.app.domain.Department_;
+import come.one.app.domain.Employee;
+import come.one.app.domain.Employee_;
+import come.one.app.service.dto.EmployeeDTO;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the {@link EmployeeRepositoryCustom} queries, picked up by Spring Data JPA for the
+ * {@link EmployeeRepository}.
+ */
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public EmployeeRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Employee> findAll(Specification<Employee> spec, Sort sort, int offset, int limit) {
+        return entityManager.createQuery(createQuery(spec, sort))
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void scrollAll(Specification<Employee> spec, Sort sort, int fetchSize, int clearInterval, Consumer<Employee> action) {
+        Query<Employee> query = entityManager.createQuery(createQuery(spec, sort)).unwrap(Query.class);
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+        query.setCacheable(false);
+        ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            int count = 0;
+            while (results.next()) {
+                action.accept((Employee) results.get(0));
+                if (++count % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void scrollNames(int fetchSize, BiConsumer<Long, String> action) {
+        Query<Object[]> query = entityManager.createQuery(
+            "select employee.id, employee.name from Employee employee order by employee.id").unwrap(Query.class);
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+        query.setCacheable(false);
+        ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (results.next()) {
+                action.accept((Long) results.get(0), (String) results.get(1));
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    @Override
+    public List<EmployeeDTO> findAllAsDto(Specification<Employee> spec, Sort sort, int offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeDTO> query = builder.createQuery(EmployeeDTO.class);
+        Root<Employee> root = query.from(Employee.class);
+        where(spec, root, query, builder);
+        Join<Employee, Department> department = root.join(Employee_.department, JoinType.LEFT);
+        query.multiselect(root.get(Employee_.id), root.get(Employee_.version), root.get(Employee_.name),
+            root.get(Employee_.age), root.get(Employee_.birthday), department.get(Department_.id),
+            department.get(Department_.version), department.get(Department_.name), department.get(Department_.area));
+        if (sort != null) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public Page<EmployeeDTO> findAllAsDto(Specification<Employee> spec, Pageable pageable) {
+        List<EmployeeDTO> content = findAllAsDto(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        long total;
+        if (!content.isEmpty() && content.size() < pageable.getPageSize()) {
+            // the last page, so the total is known
+            total = pageable.getOffset() + content.size();
+        } else if (content.isEmpty() && pageable.getOffset() == 0) {
+            total = 0;
+        } else {
+            total = count(spec);
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private long count(Specification<Employee> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+        where(spec, root, query, builder);
+        query.select(query.isDistinct() ? builder.countDistinct(root) : builder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private CriteriaQuery<Employee> createQuery(Specification<Employee> spec, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = builder.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class);
+        where(spec, root, query, builder);
+        query.select(root);
+        if (sort != null) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return query;
+    }
+
+    private static void where(Specification<Employee> spec, Root<Employee> root, CriteriaQuery<?> query,
+                              CriteriaBuilder builder) {
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package come.one.app.repository;
+
+import come.one.app.domain.OutboxEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the OutboxEmail entity.
+ */
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    List<OutboxEmail> findByNextAttemptDateLessThanEqualOrderByNextAttemptDate(Instant date, Pageable pageable);
+
+    long countByNextAttemptDateIsNotNull();
+
+    /**
+     * Claim an email for an attempt, by counting the attempt and postponing the next one until the lease ends,
+     * unless another attempt has been counted since the email was read.
+     *
+     * @return 1 if the email has been claimed, 0 otherwise
+     */
+    @Modifying
+    @Query("update OutboxEmail email set email.attempts = email.attempts + 1, email.nextAttemptDate = :leaseEnd " +
+        "where email.id = :id and email.attempts = :attempts")
+    int claim(@Param("id") Long id, @Param("attempts") int attempts, @Param("leaseEnd") Instant leaseEnd);
+}
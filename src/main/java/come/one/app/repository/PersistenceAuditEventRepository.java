@@ -11,7 +11,7 @@ import java.util.List;
 /**
  * Spring Data JPA repository for the PersistentAuditEvent entity.
  */
-public interface PersistenceAuditEventRepository extends JpaRepository<PersistentAuditEvent, Long> {
+public interface PersistenceAuditEventRepository extends JpaRepository<PersistentAuditEvent, Long>, PersistenceAuditEventRepositoryCustom {
 
     List<PersistentAuditEvent> findByPrincipal(String principal);
 
@@ -0,0 +1,89 @@
+package come.one.app.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Custom queries for the retention of the PersistentAuditEvent entity, which use SQL specific to the database.
+ */
+public interface PersistenceAuditEventRepositoryCustom {
+
+    /**
+     * Write the daily counts by principal and type of the events before the given date to the summary table,
+     * replacing the counts already written for these days.
+     *
+     * @param before the exclusive upper bound of the event dates
+     * @return the number of summary rows written
+     */
+    int summarizeBefore(Instant before);
+
+    /**
+     * Delete the data of the events before the given date, but not the events themselves.
+     *
+     * @param before the exclusive upper bound of the event dates
+     * @return the number of data rows deleted
+     */
+    int deleteDataBefore(Instant before);
+
+    /**
+     * Delete the events before the given date, with their data.
+     *
+     * @param before the exclusive upper bound of the event dates
+     * @return the number of events deleted
+     */
+    int deleteBefore(Instant before);
+
+    /**
+     * @return the partitions of the event table, ordered by date, or an empty list if the table isn't partitioned
+     */
+    List<Partition> findPartitions();
+
+    /**
+     * Drop partitions of the event table, with their events. The data of these events should be deleted first.
+     *
+     * @param partitions the partitions to drop
+     */
+    void dropPartitions(List<Partition> partitions);
+
+    /**
+     * Split the last partition of the event table, the one without upper bound, in new partitions.
+     *
+     * @param last the last partition
+     * @param partitions the partitions to create before the last one, ordered by date
+     */
+    void splitPartition(Partition last, List<Partition> partitions);
+
+    /**
+     * A range partition of the event table.
+     */
+    class Partition {
+
+        private final String name;
+
+        private final Instant upperBound;
+
+        public Partition(String name, Instant upperBound) {
+            this.name = name;
+            this.upperBound = upperBound;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the exclusive upper bound of the event dates of the partition, null for the last partition
+         */
+        public Instant getUpperBound() {
+            return upperBound;
+        }
+
+        @Override
+        public String toString() {
+            return "Partition{" +
+                "name='" + name + "'" +
+                ", upperBound=" + upperBound +
+                "}";
+        }
+    }
+}
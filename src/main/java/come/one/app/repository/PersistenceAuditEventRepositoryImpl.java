@@ -0,0 +1,128 @@
+package come.one.app.repository;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TemporalType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the {@link PersistenceAuditEventRepositoryCustom} queries, picked up by Spring Data JPA for the
+ * {@link PersistenceAuditEventRepository}.
+ * <p>
+ * The partitions are only handled on MySQL, where the event table is partitioned by range of
+ * UNIX_TIMESTAMP(event_date).
+ */
+public class PersistenceAuditEventRepositoryImpl implements PersistenceAuditEventRepositoryCustom {
+
+    private static final String MAX_VALUE = "MAXVALUE";
+
+    private final EntityManager entityManager;
+
+    private volatile Boolean mysql;
+
+    public PersistenceAuditEventRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public int summarizeBefore(Instant before) {
+        Object first = entityManager.createNativeQuery(
+            "SELECT MIN(event_date) FROM jhi_persistent_audit_event WHERE event_date < :before")
+            .setParameter("before", Date.from(before), TemporalType.TIMESTAMP)
+            .getSingleResult();
+        if (first == null) {
+            return 0;
+        }
+        entityManager.createNativeQuery(
+            "DELETE FROM jhi_persistent_audit_evt_summary WHERE summary_date >= CAST(:first AS DATE) AND summary_date <= CAST(:before AS DATE)")
+            .setParameter("first", (Date) first, TemporalType.TIMESTAMP)
+            .setParameter("before", Date.from(before), TemporalType.TIMESTAMP)
+            .executeUpdate();
+        return entityManager.createNativeQuery(
+            "INSERT INTO jhi_persistent_audit_evt_summary (summary_date, principal, event_type, event_count) " +
+            "SELECT CAST(event_date AS DATE), principal, COALESCE(event_type, ''), COUNT(*) " +
+            "FROM jhi_persistent_audit_event WHERE event_date < :before " +
+            "GROUP BY CAST(event_date AS DATE), principal, COALESCE(event_type, '')")
+            .setParameter("before", Date.from(before), TemporalType.TIMESTAMP)
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int deleteDataBefore(Instant before) {
+        return entityManager.createNativeQuery(
+            "DELETE FROM jhi_persistent_audit_evt_data WHERE event_id IN " +
+            "(SELECT event_id FROM jhi_persistent_audit_event WHERE event_date < :before)")
+            .setParameter("before", Date.from(before), TemporalType.TIMESTAMP)
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int deleteBefore(Instant before) {
+        deleteDataBefore(before);
+        return entityManager.createNativeQuery("DELETE FROM jhi_persistent_audit_event WHERE event_date < :before")
+            .setParameter("before", Date.from(before), TemporalType.TIMESTAMP)
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Partition> findPartitions() {
+        if (!isMysql()) {
+            return new ArrayList<>();
+        }
+        List<Object[]> rows = entityManager.createNativeQuery(
+            "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'jhi_persistent_audit_event' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION")
+            .getResultList();
+        return rows.stream()
+            .map(row -> new Partition((String) row[0],
+                MAX_VALUE.equals(row[1]) ? null : Instant.ofEpochSecond(Long.parseLong((String) row[1]))))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void dropPartitions(List<Partition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        entityManager.createNativeQuery("ALTER TABLE jhi_persistent_audit_event DROP PARTITION " +
+            partitions.stream().map(Partition::getName).collect(Collectors.joining(", ")))
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void splitPartition(Partition last, List<Partition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        String definitions = partitions.stream()
+            .map(partition -> "PARTITION " + partition.getName() + " VALUES LESS THAN (" +
+                partition.getUpperBound().getEpochSecond() + ")")
+            .collect(Collectors.joining(", "));
+        entityManager.createNativeQuery("ALTER TABLE jhi_persistent_audit_event REORGANIZE PARTITION " + last.getName() +
+            " INTO (" + definitions + ", PARTITION " + last.getName() + " VALUES LESS THAN " + MAX_VALUE + ")")
+            .executeUpdate();
+    }
+
+    private boolean isMysql() {
+        if (mysql == null) {
+            mysql = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName())
+                .toLowerCase().contains("mysql");
+        }
+        return mysql;
+    }
+}
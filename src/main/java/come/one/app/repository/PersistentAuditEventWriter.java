@@ -0,0 +1,171 @@
+package come.one.app.repository;
+
+import come.one.app.config.ApplicationProperties;
+import come.one.app.domain.PersistentAuditEvent;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the persistent audit events from a background thread, so the requests don't wait for the audit inserts.
+ * <p>
+ * The events are queued in a bounded queue, and saved in batches of "application.audit.batch-size" events, or
+ * whatever arrived during "application.audit.flush-interval-ms". When the queue is full, new events are dropped
+ * and counted rather than slowing down the requests. The queue is drained when the application stops.
+ */
+@Component
+public class PersistentAuditEventWriter {
+
+    private final Logger log = LoggerFactory.getLogger(PersistentAuditEventWriter.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Audit properties;
+
+    private final BlockingQueue<PersistentAuditEvent> queue;
+
+    private final Counter written;
+
+    private final Counter dropped;
+
+    private final Counter failed;
+
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public PersistentAuditEventWriter(PersistenceAuditEventRepository persistenceAuditEventRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getAudit();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.written = metricRegistry.counter(MetricRegistry.name(PersistentAuditEventWriter.class, "written"));
+        this.dropped = metricRegistry.counter(MetricRegistry.name(PersistentAuditEventWriter.class, "dropped"));
+        this.failed = metricRegistry.counter(MetricRegistry.name(PersistentAuditEventWriter.class, "failed"));
+        this.batchTimer = metricRegistry.timer(MetricRegistry.name(PersistentAuditEventWriter.class, "batch"));
+        metricRegistry.register(MetricRegistry.name(PersistentAuditEventWriter.class, "queue", "size"),
+            (Gauge<Integer>) queue::size);
+    }
+
+    /**
+     * Start the background thread writing the queued events.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "audit-event-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the background thread, and write the events still in the queue.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            // not interrupted, so an ongoing write isn't aborted: the thread stops after its current poll
+            try {
+                thread.join(properties.getShutdownTimeoutMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                log.warn("Audit event writer didn't stop within {} ms", properties.getShutdownTimeoutMs());
+                return;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Queue an event, to be written by the background thread.
+     *
+     * @param event the event to write
+     * @return false if the queue is full, in which case the event is dropped
+     */
+    public boolean offer(PersistentAuditEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        dropped.inc();
+        log.warn("Audit event queue is full, dropping {} event of {}", event.getAuditEventType(), event.getPrincipal());
+        return false;
+    }
+
+    /**
+     * Write all the queued events in the calling thread.
+     */
+    public void flush() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            write(batch);
+        }
+    }
+
+    private void run() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                PersistentAuditEvent first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    PersistentAuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    private synchronized void write(List<PersistentAuditEvent> batch) {
+        try (Timer.Context ignored = batchTimer.time()) {
+            transactionTemplate.execute(status -> persistenceAuditEventRepository.save(batch));
+            written.inc(batch.size());
+        } catch (RuntimeException e) {
+            failed.inc(batch.size());
+            log.error("Could not write {} audit events", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+}
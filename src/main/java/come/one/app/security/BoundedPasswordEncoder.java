@@ -0,0 +1,127 @@
+package come.one.app.security;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password encoder running the hashing of a delegate encoder, typically BCrypt, on a dedicated thread pool.
+ * <p>
+ * Only a fixed number of hashes are computed at once, so a burst of logins can't use all the CPU. The callers still
+ * block until their hash is computed, but only a bounded number of them wait for their turn: when the queue is full,
+ * a {@link PasswordEncoderBusyException} is thrown right away. So the request threads blocked on hashes are at most
+ * the pool size plus the queue capacity, which {@link #boundQueueCapacity} keeps below the request threads.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final Logger log = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long retryAfterSeconds;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Counter rejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, long retryAfterSeconds,
+                                  MetricRegistry metricRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue,
+            new PasswordEncoderThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = metricRegistry.timer(MetricRegistry.name(BoundedPasswordEncoder.class, "encode"));
+        this.matchesTimer = metricRegistry.timer(MetricRegistry.name(BoundedPasswordEncoder.class, "matches"));
+        this.rejections = metricRegistry.counter(MetricRegistry.name(BoundedPasswordEncoder.class, "rejections"));
+        metricRegistry.register(MetricRegistry.name(BoundedPasswordEncoder.class, "queue", "size"),
+            (Gauge<Integer>) () -> executor.getQueue().size());
+    }
+
+    /**
+     * Bound the queue capacity, so the callers hashing or waiting for a thread are at most half of the request
+     * threads, the others staying free for the requests which don't hash passwords.
+     *
+     * @param queueCapacity the configured queue capacity
+     * @param poolSize the number of hashing threads
+     * @param requestThreads the number of threads serving the requests
+     * @return the queue capacity to use
+     */
+    public static int boundQueueCapacity(int queueCapacity, int poolSize, int requestThreads) {
+        return Math.max(0, Math.min(queueCapacity, requestThreads / 2 - poolSize));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> {
+            try (Timer.Context ignored = encodeTimer.time()) {
+                return delegate.encode(rawPassword);
+            }
+        });
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> {
+            try (Timer.Context ignored = matchesTimer.time()) {
+                return delegate.matches(rawPassword, encodedPassword);
+            }
+        });
+    }
+
+    /**
+     * Stop the hashing threads, once the pending hashes are done.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            rejections.inc();
+            log.warn("Password encoder is saturated, rejecting request");
+            throw new PasswordEncoderBusyException("Too many password checks in progress", retryAfterSeconds, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the password encoder", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static class PasswordEncoderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-encoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
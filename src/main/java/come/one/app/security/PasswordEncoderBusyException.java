@@ -0,0 +1,23 @@
+package come.one.app.security;
+
+/**
+ * This exception is thrown when a password can't be hashed or checked because the password encoder is saturated.
+ */
+public class PasswordEncoderBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordEncoderBusyException(String message, long retryAfterSeconds, Throwable t) {
+        super(message, t);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds the client should wait before trying again
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
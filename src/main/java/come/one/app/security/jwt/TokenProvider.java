@@ -1,11 +1,21 @@
 package come.one.app.security.jwt;
 
+import come.one.app.config.ApplicationProperties;
+
 import io.github.jhipster.config.JHipsterProperties;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -32,8 +42,26 @@ public class TokenProvider {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties.Security.JwtCache cacheProperties;
+
+    /**
+     * Authentications of the already verified tokens, keyed by the digest of the token.
+     */
+    private final Map<String, CachedAuthentication> authenticationCache = new ConcurrentHashMap<>();
+
+    private final Counter cacheHits;
+
+    private final Counter cacheMisses;
+
+    private final Timer verificationTimer;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties,
+                         MetricRegistry metricRegistry) {
         this.jHipsterProperties = jHipsterProperties;
+        this.cacheProperties = applicationProperties.getSecurity().getJwtCache();
+        this.cacheHits = metricRegistry.counter(MetricRegistry.name(TokenProvider.class, "cache", "hits"));
+        this.cacheMisses = metricRegistry.counter(MetricRegistry.name(TokenProvider.class, "cache", "misses"));
+        this.verificationTimer = metricRegistry.timer(MetricRegistry.name(TokenProvider.class, "verification"));
     }
 
     @PostConstruct
@@ -73,7 +101,62 @@ public class TokenProvider {
             .setSigningKey(secretKey)
             .parseClaimsJws(token)
             .getBody();
+        return getAuthentication(token, claims);
+    }
 
+    /**
+     * Validate the token and return its authentication, in a single parse.
+     * <p>
+     * The authentication of a valid token is cached until the token expires, so a token is only verified on its
+     * first use.
+     *
+     * @param authToken the token
+     * @return the authentication of the token, or null if the token isn't valid
+     */
+    public Authentication resolveAuthentication(String authToken) {
+        if (!cacheProperties.isEnabled()) {
+            CachedAuthentication parsed = parseAuthentication(authToken);
+            return parsed == null ? null : parsed.authentication;
+        }
+        String key = digest(authToken);
+        CachedAuthentication cached = authenticationCache.get(key);
+        if (cached != null) {
+            if (cached.expiration > System.currentTimeMillis()) {
+                cacheHits.inc();
+                return cached.authentication;
+            }
+            authenticationCache.remove(key, cached);
+        }
+        cacheMisses.inc();
+        CachedAuthentication parsed = parseAuthentication(authToken);
+        if (parsed == null) {
+            return null;
+        }
+        if (parsed.expiration != Long.MAX_VALUE) {
+            evictIfFull();
+            authenticationCache.put(key, parsed);
+        }
+        return parsed.authentication;
+    }
+
+    /**
+     * Parse and verify the token, and build its authentication.
+     *
+     * @return the authentication and expiration of the token, or null if the token isn't valid
+     */
+    private CachedAuthentication parseAuthentication(String authToken) {
+        Claims claims;
+        try (Timer.Context ignored = verificationTimer.time()) {
+            claims = Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken).getBody();
+        } catch (SignatureException | MalformedJwtException | ExpiredJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+            logInvalidToken(e);
+            return null;
+        }
+        long expiration = claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+        return new CachedAuthentication(getAuthentication(authToken, claims), expiration);
+    }
+
+    private Authentication getAuthentication(String token, Claims claims) {
         Collection<? extends GrantedAuthority> authorities =
             Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
                 .map(SimpleGrantedAuthority::new)
@@ -88,22 +171,68 @@ public class TokenProvider {
         try {
             Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken);
             return true;
-        } catch (SignatureException e) {
+        } catch (SignatureException | MalformedJwtException | ExpiredJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+            logInvalidToken(e);
+        }
+        return false;
+    }
+
+    private void logInvalidToken(RuntimeException e) {
+        if (e instanceof SignatureException) {
             log.info("Invalid JWT signature.");
             log.trace("Invalid JWT signature trace: {}", e);
-        } catch (MalformedJwtException e) {
+        } else if (e instanceof MalformedJwtException) {
             log.info("Invalid JWT token.");
             log.trace("Invalid JWT token trace: {}", e);
-        } catch (ExpiredJwtException e) {
+        } else if (e instanceof ExpiredJwtException) {
             log.info("Expired JWT token.");
             log.trace("Expired JWT token trace: {}", e);
-        } catch (UnsupportedJwtException e) {
+        } else if (e instanceof UnsupportedJwtException) {
             log.info("Unsupported JWT token.");
             log.trace("Unsupported JWT token trace: {}", e);
-        } catch (IllegalArgumentException e) {
+        } else {
             log.info("JWT token compact of handler are invalid.");
             log.trace("JWT token compact of handler are invalid trace: {}", e);
         }
-        return false;
+    }
+
+    /**
+     * Make room for a new entry: drop the expired ones, then arbitrary ones if the cache is still full.
+     */
+    private void evictIfFull() {
+        if (authenticationCache.size() < cacheProperties.getMaxEntries()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        authenticationCache.values().removeIf(cached -> cached.expiration <= now);
+        Iterator<String> keys = authenticationCache.keySet().iterator();
+        while (authenticationCache.size() >= cacheProperties.getMaxEntries() && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * The tokens themselves are credentials, so only their digest is kept.
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class CachedAuthentication {
+
+        private final Authentication authentication;
+
+        private final long expiration;
+
+        private CachedAuthentication(Authentication authentication, long expiration) {
+            this.authentication = authentication;
+            this.expiration = expiration;
+        }
     }
 }
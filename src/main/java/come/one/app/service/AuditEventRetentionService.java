@@ -0,0 +1,105 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+import come.one.app.repository.PersistenceAuditEventRepository;
+import come.one.app.repository.PersistenceAuditEventRepositoryCustom.Partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for purging the expired audit events.
+ * <p>
+ * The events older than "application.audit.retention.days" are first counted by day, principal and type in the
+ * summary table, then deleted. On MySQL, the event table is partitioned by day: the expired partitions are dropped,
+ * which is much cheaper than deleting their rows, and the partitions of the next days are created in advance.
+ */
+@Service
+public class AuditEventRetentionService {
+
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd")
+        .withZone(ZoneOffset.UTC);
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventRetentionService.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final ApplicationProperties.Audit.Retention properties;
+
+    public AuditEventRetentionService(PersistenceAuditEventRepository persistenceAuditEventRepository,
+                                      ApplicationProperties applicationProperties) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.properties = applicationProperties.getAudit().getRetention();
+    }
+
+    /**
+     * Summarize and purge the expired audit events.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:30 (am) by default.
+     */
+    @Scheduled(cron = "${application.audit.retention.cron}")
+    public void purgeExpiredEvents() {
+        purgeExpiredEvents(Instant.now());
+    }
+
+    /**
+     * Summarize and purge the audit events expired at the given date.
+     *
+     * @param now the current date
+     */
+    public void purgeExpiredEvents(Instant now) {
+        Instant today = now.truncatedTo(ChronoUnit.DAYS);
+        Instant cutoff = today.minus(properties.getDays(), ChronoUnit.DAYS);
+        List<Partition> partitions = persistenceAuditEventRepository.findPartitions();
+
+        int summaries = persistenceAuditEventRepository.summarizeBefore(cutoff);
+        List<Partition> expired = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (partition.getUpperBound() != null && !partition.getUpperBound().isAfter(cutoff)) {
+                expired.add(partition);
+            }
+        }
+        if (!expired.isEmpty()) {
+            persistenceAuditEventRepository.deleteDataBefore(expired.get(expired.size() - 1).getUpperBound());
+            persistenceAuditEventRepository.dropPartitions(expired);
+        }
+        int deleted = persistenceAuditEventRepository.deleteBefore(cutoff);
+        log.info("Purged audit events before {}: {} summary rows written, {} partitions dropped, {} events deleted",
+            cutoff, summaries, expired.size(), deleted);
+
+        if (!partitions.isEmpty()) {
+            createPartitions(partitions, today);
+        }
+    }
+
+    /**
+     * Split the last partition, so that there are daily partitions until "partitions-ahead" days from today.
+     */
+    private void createPartitions(List<Partition> partitions, Instant today) {
+        Partition last = partitions.get(partitions.size() - 1);
+        Instant from = today;
+        for (Partition partition : partitions) {
+            if (partition.getUpperBound() != null && partition.getUpperBound().isAfter(from)) {
+                from = partition.getUpperBound();
+            }
+        }
+        Instant until = today.plus(properties.getPartitionsAhead(), ChronoUnit.DAYS);
+        List<Partition> created = new ArrayList<>();
+        for (Instant day = from; day.isBefore(until); day = day.plus(1, ChronoUnit.DAYS)) {
+            created.add(new Partition(PARTITION_NAME_FORMAT.format(day), day.plus(1, ChronoUnit.DAYS)));
+        }
+        if (!created.isEmpty()) {
+            log.debug("Creating audit event partitions {}", created);
+            persistenceAuditEventRepository.splitPartition(last, created);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Service keeping approximate row counts of criteria searches.
+ * <p>
+ * Each estimate is keyed by a fingerprint of the search (the entity and its criteria). The exact counts never run
+ * in the request: the first request of a search gets no estimate, and starts the count on the task executor. Once
+ * an estimate is older than the refresh interval, the next request reading it starts a new count in the same way.
+ * Estimates which haven't been read for a while are dropped, and the least recently read ones are evicted when there
+ * are too many of them.
+ */
+@Service
+public class CountEstimator {
+
+    private final Logger log = LoggerFactory.getLogger(CountEstimator.class);
+
+    private final ApplicationProperties.Pagination.EstimatedCount properties;
+
+    private final TaskExecutor taskExecutor;
+
+    /**
+     * The estimates in access order, guarded by itself.
+     */
+    private final Map<String, Estimate> estimates;
+
+    public CountEstimator(ApplicationProperties applicationProperties, @Qualifier("taskExecutor") TaskExecutor taskExecutor) {
+        this.properties = applicationProperties.getPagination().getEstimatedCount();
+        this.taskExecutor = taskExecutor;
+        this.estimates = new LinkedHashMap<String, Estimate>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Estimate> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+
+    /**
+     * Return the estimated count of a search.
+     *
+     * @param fingerprint the key identifying the search
+     * @param counter the exact count of the search, run in the background when no estimate is known yet or when it
+     * is due for a refresh
+     * @return the last known count of the search, or empty while the first count is running
+     */
+    public OptionalLong estimate(String fingerprint, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        Estimate estimate;
+        boolean count;
+        synchronized (estimates) {
+            estimate = estimates.computeIfAbsent(fingerprint, key -> new Estimate());
+            estimate.lastAccess = now;
+            count = !estimate.counting && estimate.countedAt < now - properties.getRefreshIntervalMs();
+            if (count) {
+                estimate.counting = true;
+            }
+        }
+        if (count) {
+            count(fingerprint, estimate, counter);
+        }
+        return estimate.countedAt == 0 ? OptionalLong.empty() : OptionalLong.of(estimate.count);
+    }
+
+    /**
+     * Correct the estimate of a search when its exact count is known, e.g. after reading its last page.
+     *
+     * @param fingerprint the key identifying the search
+     * @param count the exact count of the search
+     */
+    public void correct(String fingerprint, long count) {
+        synchronized (estimates) {
+            Estimate estimate = estimates.get(fingerprint);
+            if (estimate != null) {
+                estimate.count = count;
+                estimate.countedAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * Drop the estimates which haven't been read for the time to live.
+     * <p>
+     * This is scheduled to get launched every minute by default.
+     */
+    @Scheduled(fixedDelayString = "${application.pagination.estimated-count.refresh-interval-ms:60000}")
+    public void dropExpiredEstimates() {
+        long expiry = System.currentTimeMillis() - properties.getTimeToLiveSeconds() * 1000;
+        synchronized (estimates) {
+            // in access order, so the expired ones come first
+            Iterator<Map.Entry<String, Estimate>> entries = estimates.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, Estimate> entry = entries.next();
+                if (entry.getValue().lastAccess >= expiry) {
+                    break;
+                }
+                log.debug("Dropping estimated count of {}", entry.getKey());
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of estimates currently kept
+     */
+    public int size() {
+        synchronized (estimates) {
+            return estimates.size();
+        }
+    }
+
+    private void count(String fingerprint, Estimate estimate, LongSupplier counter) {
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    long count = counter.getAsLong();
+                    synchronized (estimates) {
+                        estimate.count = count;
+                        estimate.countedAt = System.currentTimeMillis();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not count {}: {}", fingerprint, e.getMessage());
+                } finally {
+                    synchronized (estimates) {
+                        estimate.counting = false;
+                    }
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Could not start the count of {}: {}", fingerprint, e.getMessage());
+            synchronized (estimates) {
+                estimate.counting = false;
+            }
+        }
+    }
+
+    private static final class Estimate {
+
+        private volatile long count;
+
+        /**
+         * The time of the last count, 0 until the first one is done.
+         */
+        private volatile long countedAt;
+
+        private long lastAccess;
+
+        private boolean counting;
+    }
+}
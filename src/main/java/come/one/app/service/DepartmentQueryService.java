@@ -1,12 +1,16 @@
 package come.one.app.service;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specifications;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +30,9 @@ import come.one.app.service.mapper.DepartmentMapper;
  * The main input is a {@link DepartmentCriteria} which get's converted to {@link Specifications},
  * in a way that all the filters must apply.
  * It returns a {@link List} of {@link DepartmentDTO} or a {@link Page} of {@link DepartmentDTO} which fulfills the criteria.
+ * <p>
+ * The pages and slices of the listings are selected straight from the columns into the DTOs, so the read-only
+ * listings don't create entities, proxies of their employees and dirty-checking snapshots.
  */
 @Service
 @Transactional(readOnly = true)
@@ -38,9 +45,12 @@ public class DepartmentQueryService extends QueryService<Department> {
 
     private final DepartmentMapper departmentMapper;
 
-    public DepartmentQueryService(DepartmentRepository departmentRepository, DepartmentMapper departmentMapper) {
+    private final CountEstimator countEstimator;
+
+    public DepartmentQueryService(DepartmentRepository departmentRepository, DepartmentMapper departmentMapper, CountEstimator countEstimator) {
         this.departmentRepository = departmentRepository;
         this.departmentMapper = departmentMapper;
+        this.countEstimator = countEstimator;
     }
 
     /**
@@ -65,8 +75,54 @@ public class DepartmentQueryService extends QueryService<Department> {
     public Page<DepartmentDTO> findByCriteria(DepartmentCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specifications<Department> specification = createSpecification(criteria);
-        final Page<Department> result = departmentRepository.findAll(specification, page);
-        return result.map(departmentMapper::toDto);
+        return departmentRepository.findAllAsDto(specification, page);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link DepartmentDTO} which matches the criteria from the database, without counting
+     * all the matching entities: one more row than the page size is fetched to know if there is a next slice.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<DepartmentDTO> findSliceByCriteria(DepartmentCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specifications<Department> specification = createSpecification(criteria);
+        final int size = page.getPageSize();
+        List<DepartmentDTO> content = departmentRepository.findAllAsDto(specification, page.getSort(), page.getOffset(), size + 1);
+        final boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, size));
+        }
+        return new SliceImpl<>(content, page, hasNext);
+    }
+
+    /**
+     * Return a {@link Page} of {@link DepartmentDTO} which matches the criteria from the database, whose total is an
+     * estimate kept by the {@link CountEstimator} instead of an exact count run with each request.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<DepartmentDTO> findByCriteriaWithEstimatedCount(DepartmentCriteria criteria, Pageable page) {
+        log.debug("find by criteria with estimated count : {}, page: {}", criteria, page);
+        final Slice<DepartmentDTO> slice = findSliceByCriteria(criteria, page);
+        // relies on the toString() of the criteria, which has every filter
+        final String fingerprint = Department.class.getSimpleName() + ":" + criteria;
+        final Specifications<Department> specification = createSpecification(criteria);
+        // 0 while the first count runs, then the total is at least what has been seen
+        long estimate = countEstimator.estimate(fingerprint, () -> departmentRepository.count(specification)).orElse(0);
+        final long seen = page.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || page.getOffset() == 0)) {
+            // the last page has been reached, so the exact count is known
+            countEstimator.correct(fingerprint, seen);
+            estimate = seen;
+        } else {
+            estimate = Math.max(estimate, seen + 1);
+        }
+        return new PageImpl<>(slice.getContent(), page, estimate);
     }
 
     /**
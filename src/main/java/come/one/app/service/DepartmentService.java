@@ -39,6 +39,13 @@ public class DepartmentService {
     public DepartmentDTO save(DepartmentDTO departmentDTO) {
         log.debug("Request to save Department : {}", departmentDTO);
         Department department = departmentMapper.toEntity(departmentDTO);
+        if (department.getId() != null && department.getVersion() == null) {
+            // an update without version overwrites the current department, as before the versions were added
+            Department existing = departmentRepository.findOne(department.getId());
+            if (existing != null) {
+                department.setVersion(existing.getVersion());
+            }
+        }
         department = departmentRepository.save(department);
         return departmentMapper.toDto(department);
     }
@@ -0,0 +1,197 @@
+package come.one.app.service;
+
+import come.one.app.repository.EmployeeRepository;
+import come.one.app.service.dto.DepartmentStatsDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service keeping the employee statistics of each department in memory, so reading them costs O(departments)
+ * instead of a scan of the employees.
+ * <p>
+ * The statistics are loaded on the first read, then updated with each committed {@link EmployeeChangedEvent}.
+ * The number of employees of each age is kept, so the minimum and maximum ages stay exact when employees leave.
+ * As other instances of the application or direct database changes aren't seen, the statistics are rebuilt
+ * from the employee table on "application.department-stats.reconcile-cron".
+ */
+@Service
+public class DepartmentStatsService {
+
+    private final Logger log = LoggerFactory.getLogger(DepartmentStatsService.class);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final Object lock = new Object();
+
+    /**
+     * Held while querying the database, so a virtual thread waiting for it doesn't pin its carrier thread.
+     */
+    private final Lock rebuildLock = new ReentrantLock();
+
+    /**
+     * The statistics by department id, null until they are loaded.
+     */
+    private Map<Long, DepartmentStats> stats;
+
+    /**
+     * The changes committed while the statistics are rebuilt, null when they aren't.
+     */
+    private List<EmployeeChangedEvent> pending;
+
+    public DepartmentStatsService(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Get the statistics of the departments having employees, ordered by department id.
+     *
+     * @return the statistics of each department
+     */
+    public List<DepartmentStatsDTO> findAll() {
+        synchronized (lock) {
+            if (stats != null) {
+                return toDto(stats);
+            }
+        }
+        rebuild();
+        synchronized (lock) {
+            return toDto(stats);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (stats != null) {
+                apply(stats, event);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the statistics from the employee table, to correct any drift.
+     * <p>
+     * The changes committed during the rebuild are applied again to its result, so only a change committed right
+     * when the rebuild starts can be counted twice, until the next rebuild.
+     */
+    @Scheduled(cron = "${application.department-stats.reconcile-cron}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            synchronized (lock) {
+                pending = new ArrayList<>();
+            }
+            Map<Long, DepartmentStats> rebuilt = new HashMap<>();
+            try {
+                for (Object[] row : employeeRepository.countByDepartmentAndAge()) {
+                    rebuilt.computeIfAbsent((Long) row[0], id -> new DepartmentStats()).add((Integer) row[1], (Long) row[2]);
+                }
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                for (EmployeeChangedEvent event : pending) {
+                    apply(rebuilt, event);
+                }
+                pending = null;
+                if (stats != null && !stats.equals(rebuilt)) {
+                    log.info("Department statistics drifted, corrected");
+                }
+                stats = rebuilt;
+            }
+            log.debug("Rebuilt the statistics of {} departments in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static void apply(Map<Long, DepartmentStats> stats, EmployeeChangedEvent event) {
+        EmployeeChangedEvent.State before = event.getBefore();
+        if (before != null && before.getDepartmentId() != null) {
+            DepartmentStats department = stats.get(before.getDepartmentId());
+            if (department != null) {
+                department.add(before.getAge(), -1);
+                if (department.employeeCount <= 0) {
+                    stats.remove(before.getDepartmentId());
+                }
+            }
+        }
+        EmployeeChangedEvent.State after = event.getAfter();
+        if (after != null && after.getDepartmentId() != null) {
+            stats.computeIfAbsent(after.getDepartmentId(), id -> new DepartmentStats()).add(after.getAge(), 1);
+        }
+    }
+
+    private static List<DepartmentStatsDTO> toDto(Map<Long, DepartmentStats> stats) {
+        List<DepartmentStatsDTO> result = new ArrayList<>(stats.size());
+        new TreeMap<>(stats).forEach((departmentId, department) -> result.add(department.toDto(departmentId)));
+        return result;
+    }
+
+    /**
+     * The employees of a department, counted by age.
+     */
+    private static class DepartmentStats {
+
+        private long employeeCount;
+
+        private long ageCount;
+
+        private long ageSum;
+
+        private final TreeMap<Integer, Long> ageCounts = new TreeMap<>();
+
+        void add(Integer age, long count) {
+            employeeCount += count;
+            if (age == null) {
+                return;
+            }
+            ageCount += count;
+            ageSum += age * count;
+            ageCounts.merge(age, count, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        DepartmentStatsDTO toDto(Long departmentId) {
+            return new DepartmentStatsDTO(departmentId, employeeCount,
+                ageCount == 0 ? null : (double) ageSum / ageCount,
+                ageCounts.isEmpty() ? null : ageCounts.firstKey(),
+                ageCounts.isEmpty() ? null : ageCounts.lastKey());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DepartmentStats other = (DepartmentStats) o;
+            return employeeCount == other.employeeCount && ageCounts.equals(other.ageCounts);
+        }
+
+        @Override
+        public int hashCode() {
+            return ageCounts.hashCode();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+import come.one.app.domain.Employee;
+import come.one.app.service.dto.EmployeeBulkResultDTO;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for saving Employee entities in bulk.
+ * <p>
+ * The employees are read one by one from the request, and saved in batches, each one in its own transaction:
+ * a failing batch doesn't roll back the previous ones, its items are reported as failed and the next batches are
+ * still saved.
+ */
+@Service
+public class EmployeeBulkService {
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeBulkService.class);
+
+    private final EmployeeService employeeService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ApplicationProperties.Bulk properties;
+
+    public EmployeeBulkService(EmployeeService employeeService, ObjectMapper objectMapper, Validator validator,
+                               ApplicationProperties applicationProperties) {
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = applicationProperties.getBulk();
+    }
+
+    /**
+     * Save the employees read from the stream, which holds either a JSON array or a sequence of JSON objects,
+     * like newline delimited JSON.
+     * <p>
+     * Employees without id are created, the others are updated. Reading stops at the first malformed item,
+     * which is reported as invalid.
+     *
+     * @param in the stream to read the employees from
+     * @return the result of each item, in the order of the stream
+     * @throws IOException if the stream couldn't be read
+     */
+    public List<EmployeeBulkResultDTO> save(InputStream in) throws IOException {
+        List<EmployeeBulkResultDTO> results = new ArrayList<>();
+        List<Employee> batch = new ArrayList<>(properties.getBatchSize());
+        List<EmployeeBulkResultDTO> batchResults = new ArrayList<>(properties.getBatchSize());
+        MappingIterator<Employee> employees = objectMapper.readerFor(Employee.class).readValues(in);
+        try {
+            while (true) {
+                EmployeeBulkResultDTO result = new EmployeeBulkResultDTO(results.size());
+                Employee employee;
+                try {
+                    if (!employees.hasNextValue()) {
+                        break;
+                    }
+                    employee = employees.nextValue();
+                } catch (JsonProcessingException e) {
+                    log.debug("Malformed Employee at index {}: {}", result.getIndex(), e.getOriginalMessage());
+                    result.setStatus(EmployeeBulkResultDTO.Status.INVALID);
+                    result.getErrors().add("Malformed employee: " + e.getOriginalMessage());
+                    results.add(result);
+                    break;
+                }
+                results.add(result);
+                if (isValid(employee, result)) {
+                    result.setStatus(employee.getId() == null ? EmployeeBulkResultDTO.Status.CREATED : EmployeeBulkResultDTO.Status.UPDATED);
+                    batch.add(employee);
+                    batchResults.add(result);
+                    if (batch.size() >= properties.getBatchSize()) {
+                        saveBatch(batch, batchResults);
+                    }
+                }
+            }
+        } finally {
+            employees.close();
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch, batchResults);
+        }
+        return results;
+    }
+
+    private boolean isValid(Employee employee, EmployeeBulkResultDTO result) {
+        Set<ConstraintViolation<Employee>> violations = validator.validate(employee);
+        if (violations.isEmpty()) {
+            return true;
+        }
+        result.setId(employee.getId());
+        result.setStatus(EmployeeBulkResultDTO.Status.INVALID);
+        for (ConstraintViolation<Employee> violation : violations) {
+            result.getErrors().add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return false;
+    }
+
+    private void saveBatch(List<Employee> batch, List<EmployeeBulkResultDTO> batchResults) {
+        log.debug("Saving a batch of {} Employees", batch.size());
+        // the ids given to the created employees are rolled back with a failing batch
+        List<Long> ids = batch.stream().map(Employee::getId).collect(Collectors.toList());
+        List<Employee> saved;
+        try {
+            saved = employeeService.saveBatch(batch);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Batch of {} Employees from index {} not saved: {}", batch.size(), batchResults.get(0).getIndex(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                EmployeeBulkResultDTO result = batchResults.get(i);
+                result.setId(ids.get(i));
+                result.setStatus(EmployeeBulkResultDTO.Status.FAILED);
+                result.getErrors().add("Batch not saved: " + e.getMostSpecificCause().getMessage());
+            }
+            batch.clear();
+            batchResults.clear();
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            EmployeeBulkResultDTO result = batchResults.get(i);
+            Employee employee = saved.get(i);
+            if (employee == null) {
+                result.setId(batch.get(i).getId());
+                result.setStatus(EmployeeBulkResultDTO.Status.NOT_FOUND);
+            } else {
+                result.setId(employee.getId());
+            }
+        }
+        batch.clear();
+        batchResults.clear();
+    }
+}
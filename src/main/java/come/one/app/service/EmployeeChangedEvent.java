@@ -0,0 +1,101 @@
+package come.one.app.service;
+
+import come.one.app.domain.Employee;
+
+/**
+ * Event published by the {@link EmployeeService} when an employee is created, updated or deleted, with the
+ * name, department and age of the employee before and after the change.
+ * <p>
+ * It is handled once the transaction is committed, so the listeners only see the changes which were saved.
+ */
+public class EmployeeChangedEvent {
+
+    private final Long employeeId;
+
+    private final State before;
+
+    private final State after;
+
+    public EmployeeChangedEvent(Long employeeId, State before, State after) {
+        this.employeeId = employeeId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    /**
+     * @return the state of the employee before the change, or null if it was created
+     */
+    public State getBefore() {
+        return before;
+    }
+
+    /**
+     * @return the state of the employee after the change, or null if it was deleted
+     */
+    public State getAfter() {
+        return after;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeChangedEvent{" +
+            "employeeId=" + employeeId +
+            ", before=" + before +
+            ", after=" + after +
+            "}";
+    }
+
+    /**
+     * The name, department and age of an employee.
+     */
+    public static class State {
+
+        private final String name;
+
+        private final Long departmentId;
+
+        private final Integer age;
+
+        public State(String name, Long departmentId, Integer age) {
+            this.name = name;
+            this.departmentId = departmentId;
+            this.age = age;
+        }
+
+        /**
+         * @return the state of the employee, or null if there is no employee
+         */
+        public static State of(Employee employee) {
+            if (employee == null) {
+                return null;
+            }
+            return new State(employee.getName(),
+                employee.getDepartment() == null ? null : employee.getDepartment().getId(), employee.getAge());
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Long getDepartmentId() {
+            return departmentId;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        @Override
+        public String toString() {
+            return "State{" +
+                "name='" + name + "'" +
+                ", departmentId=" + departmentId +
+                ", age=" + age +
+                "}";
+        }
+    }
+}
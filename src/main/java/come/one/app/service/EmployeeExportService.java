@@ -0,0 +1,171 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+import come.one.app.domain.Department;
+import come.one.app.domain.Employee;
+import come.one.app.service.dto.EmployeeCriteria;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Service for exporting Employee entities, streamed row by row from the database to an output stream.
+ */
+@Service
+public class EmployeeExportService {
+
+    /**
+     * The formats the employees can be exported to.
+     */
+    public enum Format {
+
+        NDJSON("application/x-ndjson", "ndjson"),
+
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @param value the name of the format, case insensitive
+         * @return the format
+         * @throws IllegalArgumentException if the value isn't a known format
+         */
+        public static Format fromParameter(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export format: " + value);
+        }
+    }
+
+    private static final String CSV_HEADER = "id,name,age,birthday,departmentId,departmentName";
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeExportService.class);
+
+    private final EmployeeQueryService employeeQueryService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Export properties;
+
+    public EmployeeExportService(EmployeeQueryService employeeQueryService, ObjectMapper objectMapper,
+                                 ApplicationProperties applicationProperties) {
+        this.employeeQueryService = employeeQueryService;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getExport();
+    }
+
+    /**
+     * Write the employees matching the criteria to the output stream.
+     *
+     * @param criteria the criterias which the exported entities should match
+     * @param format the format of the export
+     * @param out the stream to write to, which is flushed but not closed
+     * @throws IOException if the export couldn't be written
+     */
+    public void export(EmployeeCriteria criteria, Format format, OutputStream out) throws IOException {
+        log.debug("Request to export Employees by criteria: {} as {}", criteria, format);
+        try {
+            if (format == Format.CSV) {
+                exportCsv(criteria, out);
+            } else {
+                exportNdjson(criteria, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportNdjson(EmployeeCriteria criteria, OutputStream out) throws IOException {
+        // the rows are separated by the newlines alone, not by the default root value separator, a space
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+        // flushing after each row would send one chunk per employee
+        ObjectWriter writer = objectMapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        employeeQueryService.scrollByCriteria(criteria, properties.getFetchSize(), properties.getClearInterval(), employee -> {
+            try {
+                writer.writeValue(generator, employee);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.close();
+        out.flush();
+    }
+
+    private void exportCsv(EmployeeCriteria criteria, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        employeeQueryService.scrollByCriteria(criteria, properties.getFetchSize(), properties.getClearInterval(), employee -> {
+            try {
+                writeCsvLine(writer, employee);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, Employee employee) throws IOException {
+        Department department = employee.getDepartment();
+        writer.write(String.valueOf(employee.getId()));
+        writer.write(',');
+        writer.write(csvValue(employee.getName()));
+        writer.write(',');
+        writer.write(employee.getAge() == null ? "" : employee.getAge().toString());
+        writer.write(',');
+        writer.write(employee.getBirthday() == null ? "" : DateTimeFormatter.ISO_INSTANT.format(employee.getBirthday()));
+        writer.write(',');
+        writer.write(department == null ? "" : String.valueOf(department.getId()));
+        writer.write(',');
+        writer.write(department == null ? "" : csvValue(department.getName()));
+        writer.write('\n');
+    }
+
+    /**
+     * Quote the value as per RFC 4180 when it holds a separator, a quote or a line break.
+     */
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -2,12 +2,24 @@ package come.one.app.service;
 
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.domain.Specifications;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +30,9 @@ import come.one.app.domain.Employee;
 import come.one.app.domain.*; // for static metamodels
 import come.one.app.repository.EmployeeRepository;
 import come.one.app.service.dto.EmployeeCriteria;
+import come.one.app.service.dto.EmployeeDTO;
+import come.one.app.service.dto.KeysetCursor;
+import come.one.app.service.dto.KeysetSlice;
 
 
 /**
@@ -25,6 +40,9 @@ import come.one.app.service.dto.EmployeeCriteria;
  * The main input is a {@link EmployeeCriteria} which get's converted to {@link Specifications},
  * in a way that all the filters must apply.
  * It returns a {@link List} of {@link Employee} or a {@link Page} of {@link Employee} which fulfills the criteria.
+ * <p>
+ * The pages and slices of the listings are {@link EmployeeDTO} selected straight from the columns, so the
+ * read-only listings don't create entities, proxies and dirty-checking snapshots.
  */
 @Service
 @Transactional(readOnly = true)
@@ -32,11 +50,17 @@ public class EmployeeQueryService extends QueryService<Employee> {
 
     private final Logger log = LoggerFactory.getLogger(EmployeeQueryService.class);
 
+    private static final String ID_PROPERTY = "id";
+
+    private static final String NAME_PROPERTY = "name";
 
     private final EmployeeRepository employeeRepository;
 
-    public EmployeeQueryService(EmployeeRepository employeeRepository) {
+    private final CountEstimator countEstimator;
+
+    public EmployeeQueryService(EmployeeRepository employeeRepository, CountEstimator countEstimator) {
         this.employeeRepository = employeeRepository;
+        this.countEstimator = countEstimator;
     }
 
     /**
@@ -52,23 +76,173 @@ public class EmployeeQueryService extends QueryService<Employee> {
     }
 
     /**
-     * Return a {@link Page} of {@link Employee} which matches the criteria from the database
+     * Return a {@link Page} of {@link EmployeeDTO} which matches the criteria from the database
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<Employee> findByCriteria(EmployeeCriteria criteria, Pageable page) {
+    public Page<EmployeeDTO> findByCriteria(EmployeeCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specifications<Employee> specification = createSpecification(criteria);
-        return employeeRepository.findAll(specification, page);
+        return employeeRepository.findAllAsDto(specification, page);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link EmployeeDTO} which matches the criteria from the database, without counting
+     * all the matching entities: one more row than the page size is fetched to know if there is a next slice.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EmployeeDTO> findSliceByCriteria(EmployeeCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specifications<Employee> specification = createSpecification(criteria);
+        final int size = page.getPageSize();
+        List<EmployeeDTO> content = employeeRepository.findAllAsDto(specification, page.getSort(), page.getOffset(), size + 1);
+        final boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, size));
+        }
+        return new SliceImpl<>(content, page, hasNext);
+    }
+
+    /**
+     * Return a {@link Page} of {@link EmployeeDTO} which matches the criteria from the database, whose total is an
+     * estimate kept by the {@link CountEstimator} instead of an exact count run with each request.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<EmployeeDTO> findByCriteriaWithEstimatedCount(EmployeeCriteria criteria, Pageable page) {
+        log.debug("find by criteria with estimated count : {}, page: {}", criteria, page);
+        final Slice<EmployeeDTO> slice = findSliceByCriteria(criteria, page);
+        // relies on the toString() of the criteria, which has every filter
+        final String fingerprint = Employee.class.getSimpleName() + ":" + criteria;
+        final Specifications<Employee> specification = createSpecification(criteria);
+        // 0 while the first count runs, then the total is at least what has been seen
+        long estimate = countEstimator.estimate(fingerprint, () -> employeeRepository.count(specification)).orElse(0);
+        final long seen = page.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || page.getOffset() == 0)) {
+            // the last page has been reached, so the exact count is known
+            countEstimator.correct(fingerprint, seen);
+            estimate = seen;
+        } else {
+            estimate = Math.max(estimate, seen + 1);
+        }
+        return new PageImpl<>(slice.getContent(), page, estimate);
+    }
+
+    /**
+     * Pass each {@link Employee} which matches the criteria to the action, ordered by id, streaming them from
+     * a forward-only cursor instead of loading them all: memory use doesn't depend on the number of matches.
+     * The employees are detached once the action has been run on them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fetchSize The number of rows the JDBC driver should fetch at once.
+     * @param clearInterval The number of rows after which the persistence context is cleared.
+     * @param action The action to run on each matching entity.
+     */
+    @Transactional(readOnly = true)
+    public void scrollByCriteria(EmployeeCriteria criteria, int fetchSize, int clearInterval, Consumer<Employee> action) {
+        log.debug("scroll by criteria : {}", criteria);
+        final Specifications<Employee> specification = createSpecification(criteria);
+        employeeRepository.scrollAll(specification, new Sort(ID_PROPERTY), fetchSize, clearInterval, action);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link EmployeeDTO} which matches the criteria from the database, using keyset
+     * (seek) pagination: the slice starts right after the row the cursor points to, so no OFFSET and no count query
+     * are needed, and a deep slice costs the same as the first one.
+     * <p>
+     * Rows are ordered on the (sort key, id) tuple. Only the non-nullable "id" and "name" properties can be used as
+     * sort key, as NULL values can't be sought consistently across databases.
+     *
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous slice, or null to get the first slice.
+     * @param page The size of the slice, and its sort when no cursor is given.
+     * @return the matching entities.
+     * @throws IllegalArgumentException if the requested sort property can't be used for keyset pagination
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<EmployeeDTO> findByCriteria(EmployeeCriteria criteria, KeysetCursor after, Pageable page) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Sort.Order order = keysetOrder(after, page.getSort());
+        Sort sort = new Sort(order);
+        if (!ID_PROPERTY.equals(order.getProperty())) {
+            sort = sort.and(new Sort(order.getDirection(), ID_PROPERTY));
+        }
+        Specifications<Employee> specification = createSpecification(criteria);
+        if (after != null) {
+            specification = specification.and(seek(after));
+        }
+        final int size = page.getPageSize();
+        // fetch one extra row to know if there is a next slice
+        List<EmployeeDTO> content = employeeRepository.findAllAsDto(specification, sort, 0, size + 1);
+        KeysetCursor nextCursor = null;
+        if (content.size() > size) {
+            content = new ArrayList<>(content.subList(0, size));
+            EmployeeDTO last = content.get(size - 1);
+            String value = NAME_PROPERTY.equals(order.getProperty()) ? last.getName() : null;
+            nextCursor = new KeysetCursor(order.getProperty(), order.getDirection(), last.getId(), value);
+        }
+        return new KeysetSlice<>(content, new PageRequest(0, size, sort), nextCursor);
+    }
+
+    /**
+     * The cursor carries the ordering of the listing, otherwise the first requested order is used, and the id.
+     */
+    private Sort.Order keysetOrder(KeysetCursor after, Sort sort) {
+        Sort.Order order;
+        if (after != null) {
+            order = new Sort.Order(after.getDirection(), after.getProperty());
+        } else if (sort != null && sort.iterator().hasNext()) {
+            order = sort.iterator().next();
+        } else {
+            order = new Sort.Order(Sort.Direction.ASC, ID_PROPERTY);
+        }
+        if (!ID_PROPERTY.equals(order.getProperty()) && !NAME_PROPERTY.equals(order.getProperty())) {
+            throw new IllegalArgumentException("Keyset pagination can't sort employees by " + order.getProperty());
+        }
+        return order;
+    }
+
+    /**
+     * Specification matching the rows which come after the cursor, for the cursor ordering.
+     */
+    private Specification<Employee> seek(KeysetCursor after) {
+        final boolean ascending = after.getDirection().isAscending();
+        return (root, query, builder) -> {
+            Path<Long> id = root.get(Employee_.id);
+            Predicate afterId = ascending ? builder.greaterThan(id, after.getId()) : builder.lessThan(id, after.getId());
+            if (ID_PROPERTY.equals(after.getProperty())) {
+                return afterId;
+            }
+            Path<String> key = root.get(Employee_.name);
+            Predicate afterKey = ascending ? builder.greaterThan(key, after.getValue()) : builder.lessThan(key, after.getValue());
+            return builder.or(afterKey, builder.and(builder.equal(key, after.getValue()), afterId));
+        };
+    }
+
+    /**
+     * Specification fetching the department in the same query as the employees, instead of one query per
+     * department. The count and projection queries are left alone, as they don't select the entities.
+     */
+    private Specification<Employee> fetchDepartment() {
+        return (root, query, builder) -> {
+            if (Employee.class.equals(query.getResultType())) {
+                root.fetch(Employee_.department, JoinType.LEFT);
+            }
+            return null;
+        };
     }
 
     /**
-     * Function to convert EmployeeCriteria to a {@link Specifications}
+     * Function to convert EmployeeCriteria to a {@link Specifications}, package-private for the benchmarks
      */
-    private Specifications<Employee> createSpecification(EmployeeCriteria criteria) {
-        Specifications<Employee> specification = Specifications.where(null);
+    Specifications<Employee> createSpecification(EmployeeCriteria criteria) {
+        Specifications<Employee> specification = Specifications.where(fetchDepartment());
         if (criteria != null) {
             if (criteria.getId() != null) {
                 specification = specification.and(buildSpecification(criteria.getId(), Employee_.id));
@@ -0,0 +1,183 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+import come.one.app.repository.EmployeeRepository;
+import come.one.app.service.dto.EmployeeCriteria;
+import come.one.app.service.dto.EmployeeSearchResultDTO;
+import come.one.app.service.util.TrigramIndex;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.github.jhipster.service.filter.StringFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Service for the typeahead search of the employees by name, served from an in-memory {@link TrigramIndex}
+ * instead of a "LIKE '%name%'" scan of the employee table.
+ * <p>
+ * The index is built in the background once the application is started, by streaming the ids and names of the
+ * employees, then updated with each committed {@link EmployeeChangedEvent}. Until it is built, the searches go to
+ * the database. Its size and estimated memory use are reported in the metrics.
+ */
+@Service
+public class EmployeeSearchService {
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeSearchService.class);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EmployeeQueryService employeeQueryService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Search properties;
+
+    private final Timer searchTimer;
+
+    private final Object lock = new Object();
+
+    /**
+     * Not a monitor, as it is held while scrolling the employee table, which would pin a virtual thread.
+     */
+    private final Lock rebuildLock = new ReentrantLock();
+
+    /**
+     * The index, null until it is built.
+     */
+    private volatile TrigramIndex index;
+
+    /**
+     * The changes committed while the index is rebuilt, null when it isn't.
+     */
+    private List<EmployeeChangedEvent> pending;
+
+    public EmployeeSearchService(EmployeeRepository employeeRepository, EmployeeQueryService employeeQueryService,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this.employeeRepository = employeeRepository;
+        this.employeeQueryService = employeeQueryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getSearch();
+        this.searchTimer = metricRegistry.timer(MetricRegistry.name(EmployeeSearchService.class, "search"));
+        metricRegistry.register(MetricRegistry.name(EmployeeSearchService.class, "index", "size"),
+            (Gauge<Integer>) () -> index == null ? 0 : index.size());
+        metricRegistry.register(MetricRegistry.name(EmployeeSearchService.class, "index", "grams"),
+            (Gauge<Integer>) () -> index == null ? 0 : index.grams());
+        metricRegistry.register(MetricRegistry.name(EmployeeSearchService.class, "index", "memory", "bytes"),
+            (Gauge<Long>) () -> index == null ? 0L : index.memoryBytes());
+    }
+
+    /**
+     * Search the employees whose name matches the query, the best matches first.
+     *
+     * @param query the text to search, contained in the names, or starting one of their words if shorter than 3
+     * @param limit the maximum number of employees to return, or null for the default
+     * @return the matching employees
+     */
+    public List<EmployeeSearchResultDTO> search(String query, Integer limit) {
+        int maxResults = limit == null ? properties.getDefaultLimit() : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        TrigramIndex current = index;
+        if (current == null) {
+            log.debug("Employee name index not built yet, searching the database for : {}", query);
+            EmployeeCriteria criteria = new EmployeeCriteria();
+            StringFilter name = new StringFilter();
+            name.setContains(query);
+            criteria.setName(name);
+            return employeeQueryService.findSliceByCriteria(criteria, new PageRequest(0, maxResults)).getContent().stream()
+                .map(employee -> new EmployeeSearchResultDTO(employee.getId(), employee.getName()))
+                .collect(Collectors.toList());
+        }
+        try (Timer.Context ignored = searchTimer.time()) {
+            return current.search(query, maxResults, properties.getMaxCandidates()).stream()
+                .map(match -> new EmployeeSearchResultDTO(match.getId(), match.getName()))
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Could not build the employee name index, the searches go to the database", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (index != null) {
+                apply(index, event);
+            }
+        }
+    }
+
+    /**
+     * Build the index from the employee table, replacing the current one once done.
+     * <p>
+     * The changes committed during the build are applied again to the new index.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            synchronized (lock) {
+                pending = new ArrayList<>();
+            }
+            TrigramIndex rebuilt = new TrigramIndex();
+            try {
+                transactionTemplate.execute(status -> {
+                    employeeRepository.scrollNames(properties.getFetchSize(), rebuilt::put);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                for (EmployeeChangedEvent event : pending) {
+                    apply(rebuilt, event);
+                }
+                pending = null;
+                index = rebuilt;
+            }
+            log.info("Indexed {} employee names in {} ms: {} trigrams, about {} KB", rebuilt.size(),
+                System.currentTimeMillis() - start, rebuilt.grams(), rebuilt.memoryBytes() / 1024);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static void apply(TrigramIndex index, EmployeeChangedEvent event) {
+        String before = event.getBefore() == null ? null : event.getBefore().getName();
+        String after = event.getAfter() == null ? null : event.getAfter().getName();
+        if (event.getBefore() != null && event.getAfter() != null && Objects.equals(before, after)) {
+            return;
+        }
+        index.put(event.getEmployeeId(), after);
+    }
+}
@@ -4,14 +4,25 @@ import come.one.app.domain.Employee;
 import come.one.app.repository.EmployeeRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service Implementation for managing Employee.
+ * <p>
+ * Each saved or deleted employee is published as an {@link EmployeeChangedEvent}.
  */
 @Service
 @Transactional
@@ -21,8 +32,11 @@ public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
 
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public EmployeeService(EmployeeRepository employeeRepository, ApplicationEventPublisher applicationEventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -33,7 +47,43 @@ public class EmployeeService {
      */
     public Employee save(Employee employee) {
         log.debug("Request to save Employee : {}", employee);
-        return employeeRepository.save(employee);
+        // loaded before the merge, which then doesn't select it again
+        Employee existing = employee.getId() == null ? null : employeeRepository.findOne(employee.getId());
+        EmployeeChangedEvent.State before = EmployeeChangedEvent.State.of(existing);
+        setVersionIfMissing(employee, existing);
+        Employee result = employeeRepository.save(employee);
+        applicationEventPublisher.publishEvent(new EmployeeChangedEvent(result.getId(), before, EmployeeChangedEvent.State.of(result)));
+        return result;
+    }
+
+    /**
+     * Save a batch of employees in a single transaction, so their inserts and updates are sent to the database
+     * in JDBC batches. Employees with an id which doesn't exist are not saved.
+     *
+     * @param employees the entities to save
+     * @return the persisted entities, in the same order, with null in place of the employees which weren't found
+     */
+    public List<Employee> saveBatch(List<Employee> employees) {
+        log.debug("Request to save a batch of {} Employees", employees.size());
+        Set<Long> ids = employees.stream().map(Employee::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        // loading the existing employees at once also saves one select per merge
+        Map<Long, Employee> existing = ids.isEmpty() ? Collections.emptyMap() :
+            employeeRepository.findAll(ids).stream().collect(Collectors.toMap(Employee::getId, Function.identity()));
+        List<Employee> result = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            if (employee.getId() != null && !existing.containsKey(employee.getId())) {
+                result.add(null);
+            } else {
+                Employee current = employee.getId() == null ? null : existing.get(employee.getId());
+                EmployeeChangedEvent.State before = EmployeeChangedEvent.State.of(current);
+                setVersionIfMissing(employee, current);
+                Employee saved = employeeRepository.save(employee);
+                applicationEventPublisher.publishEvent(new EmployeeChangedEvent(saved.getId(), before, EmployeeChangedEvent.State.of(saved)));
+                result.add(saved);
+            }
+        }
+        employeeRepository.flush();
+        return result;
     }
 
     /**
@@ -60,6 +110,20 @@ public class EmployeeService {
         return employeeRepository.findOne(id);
     }
 
+    /**
+     * Get the versions of one employee and of its department, without loading them.
+     *
+     * @param id the id of the entity
+     * @return the (version, department id, department version) of the employee, the department ones being null if
+     * it has no department, or null if there is no such employee
+     */
+    @Transactional(readOnly = true)
+    public Object[] findVersions(Long id) {
+        log.debug("Request to get the versions of Employee : {}", id);
+        List<Object[]> versions = employeeRepository.findVersionsById(id);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
     /**
      * Delete the employee by id.
      *
@@ -67,6 +131,17 @@ public class EmployeeService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Employee : {}", id);
+        EmployeeChangedEvent.State before = EmployeeChangedEvent.State.of(employeeRepository.findOne(id));
         employeeRepository.delete(id);
+        applicationEventPublisher.publishEvent(new EmployeeChangedEvent(id, before, null));
+    }
+
+    /**
+     * An update without version overwrites the current employee, as before the versions were added.
+     */
+    private static void setVersionIfMissing(Employee employee, Employee existing) {
+        if (existing != null && employee.getVersion() == null) {
+            employee.setVersion(existing.getVersion());
+        }
     }
 }
@@ -0,0 +1,151 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service counting the committed changes of each entity, so the listings can tell whether their content may have
+ * changed without querying the database.
+ * <p>
+ * The inserts, updates and deletes are counted by Hibernate listeners once their transaction is committed. The
+ * counts start again at 0 on each startup, so they only identify a state of the entities together with the
+ * {@link #getEpoch() epoch} of the instance, and they only cover the changes made through the entities of this
+ * instance: neither the bulk queries nor the changes made by other instances or outside of the application.
+ * <p>
+ * So they can only tag the listings when a single instance runs, and when it doesn't read from replicas, whose
+ * content may be older than the counts: see {@link #isComplete()}.
+ */
+@Service
+public class EntityChangeCounter implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+    PostCommitDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final Map<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final boolean complete;
+
+    public EntityChangeCounter(EntityManagerFactory entityManagerFactory, ApplicationProperties applicationProperties) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.complete = applicationProperties.getConditionalRequests().isListEtags()
+            && applicationProperties.getDatasource().getReplicas().isEmpty();
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * @return true if the counts follow the content read by the listings: the "application.conditional-requests.list-etags"
+     * property, to be turned off when several instances run, is on, and no replica is configured
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return the startup time of this instance, in milliseconds
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @param entityClass the class of the entity
+     * @return the number of committed changes of the entity since the startup
+     */
+    public long getCount(Class<?> entityClass) {
+        Counter counter = counters.get(entityClass);
+        return counter == null ? 0 : counter.count.get();
+    }
+
+    /**
+     * @param entityClasses the classes of the entities
+     * @return the time of the last committed change of one of the entities, in milliseconds, or the startup time if
+     * none was changed since
+     */
+    public long getLastModified(Class<?>... entityClasses) {
+        long lastModified = epoch;
+        for (Class<?> entityClass : entityClasses) {
+            Counter counter = counters.get(entityClass);
+            if (counter != null) {
+                lastModified = Math.max(lastModified, counter.lastModified);
+            }
+        }
+        return lastModified;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        increment(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        increment(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        increment(event.getPersister());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // rolled back, nothing changed
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // rolled back, nothing changed
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // rolled back, nothing changed
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+
+    private void increment(EntityPersister persister) {
+        Counter counter = counters.computeIfAbsent(persister.getMappedClass(), entityClass -> new Counter());
+        counter.lastModified = System.currentTimeMillis();
+        counter.count.incrementAndGet();
+    }
+
+    private static final class Counter {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private volatile long lastModified;
+    }
+}
@@ -0,0 +1,142 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+import come.one.app.config.Constants;
+import come.one.app.domain.Department;
+import come.one.app.domain.Employee;
+import come.one.app.repository.EmployeeRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds an empty database with generated departments and employees, for the load tests.
+ * <p>
+ * The data is generated from a fixed seed, so two runs with the same settings get the same data, and follows
+ * realistic distributions: a few large departments and a long tail of small ones, and normally distributed ages.
+ * The employees are inserted in batches, one transaction per batch.
+ */
+@Component
+@Profile(Constants.SPRING_PROFILE_LOADTEST)
+public class LoadTestDataGenerator implements ApplicationRunner {
+
+    private static final List<String> FIRST_NAMES = Arrays.asList("James", "Mary", "John", "Patricia", "Robert",
+        "Jennifer", "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph",
+        "Jessica", "Thomas", "Sarah", "Charles", "Karen", "Nguyen", "Tran", "Minh", "Lan", "Anh", "Hoa");
+
+    private static final List<String> LAST_NAMES = Arrays.asList("Smith", "Johnson", "Williams", "Brown", "Jones",
+        "Garcia", "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+        "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Le", "Pham", "Hoang", "Vu", "Dang", "Bui");
+
+    private static final List<String> DEPARTMENT_NAMES = Arrays.asList("Engineering", "Sales", "Marketing",
+        "Finance", "Support", "Operations", "Legal", "Research", "Logistics", "Purchasing");
+
+    /**
+     * Exponent of the Zipf distribution of the department sizes.
+     */
+    private static final double DEPARTMENT_SIZE_EXPONENT = 1.1;
+
+    private final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.LoadTest properties;
+
+    public LoadTestDataGenerator(EmployeeRepository employeeRepository, EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getLoadTest();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (employeeRepository.count() > 0) {
+            log.info("Employees already exist, not generating the load test data");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Random random = new Random(properties.getSeed());
+        List<Long> departmentIds = transactionTemplate.execute(status -> createDepartments(random));
+        double[] cumulativeWeights = departmentSizeWeights(departmentIds.size());
+        ZonedDateTime today = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+
+        for (int created = 0; created < properties.getEmployees(); created += properties.getBatchSize()) {
+            int count = Math.min(properties.getBatchSize(), properties.getEmployees() - created);
+            transactionTemplate.execute(status -> {
+                for (int i = 0; i < count; i++) {
+                    Long departmentId = departmentIds.get(pick(cumulativeWeights, random.nextDouble()));
+                    entityManager.persist(createEmployee(random, today, entityManager.getReference(Department.class, departmentId)));
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+        }
+        log.info("Generated {} departments and {} employees in {} ms", departmentIds.size(), properties.getEmployees(),
+            System.currentTimeMillis() - start);
+    }
+
+    private List<Long> createDepartments(Random random) {
+        List<Long> ids = new ArrayList<>(properties.getDepartments());
+        for (int i = 0; i < properties.getDepartments(); i++) {
+            Department department = new Department()
+                .name(DEPARTMENT_NAMES.get(i % DEPARTMENT_NAMES.size()) + " " + (i / DEPARTMENT_NAMES.size() + 1))
+                // log-normal areas, around 200
+                .area(Math.round(Math.exp(5.3 + 0.8 * random.nextGaussian())));
+            entityManager.persist(department);
+            ids.add(department.getId());
+        }
+        return ids;
+    }
+
+    private Employee createEmployee(Random random, ZonedDateTime today, Department department) {
+        int age = (int) Math.max(18, Math.min(67, Math.round(40 + 11 * random.nextGaussian())));
+        return new Employee()
+            .name(FIRST_NAMES.get(random.nextInt(FIRST_NAMES.size())) + " " + LAST_NAMES.get(random.nextInt(LAST_NAMES.size())))
+            .age(age)
+            .birthday(today.minusYears(age).minusDays(random.nextInt(365)))
+            .department(department);
+    }
+
+    /**
+     * @return the cumulative weights of the departments, the first department being the largest
+     */
+    private static double[] departmentSizeWeights(int departments) {
+        double[] weights = new double[departments];
+        double total = 0;
+        for (int i = 0; i < departments; i++) {
+            total += 1 / Math.pow(i + 1, DEPARTMENT_SIZE_EXPONENT);
+            weights[i] = total;
+        }
+        for (int i = 0; i < departments; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    private static int pick(double[] cumulativeWeights, double value) {
+        int index = Arrays.binarySearch(cumulativeWeights, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeWeights.length - 1);
+    }
+}
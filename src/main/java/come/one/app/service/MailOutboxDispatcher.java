@@ -0,0 +1,256 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+import come.one.app.domain.OutboxEmail;
+import come.one.app.repository.OutboxEmailRepository;
+
+import com.codahale.metrics.CachedGauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the emails of the outbox from a background thread, so the mail server doesn't slow down the requests nor
+ * take the threads of the shared task executor.
+ * <p>
+ * The due emails are sent in batches of "application.mail-outbox.batch-size", over a single SMTP connection per
+ * batch. The sent emails are deleted, and the failed ones are attempted again after a backoff, doubled after each
+ * failure, until "application.mail-outbox.max-attempts" is reached and the email is given up.
+ * <p>
+ * The emails are claimed before being sent, so several instances of the application can share the outbox. An
+ * email claimed by an instance which stopped while sending it is attempted again once its lease has ended, so an
+ * email can be sent twice, but never lost.
+ */
+@Component
+public class MailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final OutboxEmailRepository outboxEmailRepository;
+
+    private final MailService mailService;
+
+    private final JavaMailSender javaMailSender;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final Meter sent;
+
+    private final Meter failed;
+
+    private final Meter givenUp;
+
+    private final Timer batchTimer;
+
+    private final Object monitor = new Object();
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public MailOutboxDispatcher(OutboxEmailRepository outboxEmailRepository, @Lazy MailService mailService,
+                                JavaMailSender javaMailSender, PlatformTransactionManager transactionManager,
+                                ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.mailService = mailService;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getMailOutbox();
+        this.sent = metricRegistry.meter(MetricRegistry.name(MailOutboxDispatcher.class, "sent"));
+        this.failed = metricRegistry.meter(MetricRegistry.name(MailOutboxDispatcher.class, "failed"));
+        this.givenUp = metricRegistry.meter(MetricRegistry.name(MailOutboxDispatcher.class, "given-up"));
+        this.batchTimer = metricRegistry.timer(MetricRegistry.name(MailOutboxDispatcher.class, "batch"));
+        metricRegistry.register(MetricRegistry.name(MailOutboxDispatcher.class, "outbox", "size"),
+            new CachedGauge<Long>(1, TimeUnit.MINUTES) {
+                @Override
+                protected Long loadValue() {
+                    return outboxEmailRepository.countByNextAttemptDateIsNotNull();
+                }
+            });
+    }
+
+    /**
+     * Start the background thread sending the due emails, unless the dispatcher is disabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Mail outbox dispatcher disabled, the emails stay in the outbox");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "mail-outbox-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the background thread, after the batch it is sending.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+            // not interrupted, so an ongoing batch isn't aborted
+            try {
+                thread.join(properties.getShutdownTimeoutMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                log.warn("Mail outbox dispatcher didn't stop within {} ms", properties.getShutdownTimeoutMs());
+            }
+        }
+    }
+
+    /**
+     * Send a batch of the due emails in the calling thread.
+     *
+     * @return the number of emails sent
+     */
+    public int dispatch() {
+        List<OutboxEmail> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, String> errors = new HashMap<>();
+        try (Timer.Context ignored = batchTimer.time()) {
+            // MimeMessage doesn't override equals, so the messages are mapped by identity
+            Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+            for (OutboxEmail email : batch) {
+                try {
+                    messages.put(mailService.createMimeMessage(email), email);
+                } catch (MessagingException e) {
+                    errors.put(email.getId(), e.toString());
+                }
+            }
+            if (!messages.isEmpty()) {
+                send(messages, errors);
+            }
+        }
+        complete(batch, errors);
+        return batch.size() - errors.size();
+    }
+
+    private void run() {
+        while (running) {
+            int count = 0;
+            try {
+                count = dispatch();
+            } catch (RuntimeException e) {
+                log.error("Could not dispatch the mail outbox", e);
+            }
+            if (count == 0 && running) {
+                // after sending emails, more may be due right away, otherwise wait for new ones
+                synchronized (monitor) {
+                    try {
+                        monitor.wait(properties.getPollIntervalMs());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        running = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Claim the due emails, in a transaction of their own, so the other instances leave them alone.
+     */
+    private List<OutboxEmail> claim() {
+        Instant now = Instant.now();
+        Instant leaseEnd = now.plusSeconds(properties.getLeaseSeconds());
+        return transactionTemplate.execute(status ->
+            outboxEmailRepository.findByNextAttemptDateLessThanEqualOrderByNextAttemptDate(now,
+                new PageRequest(0, properties.getBatchSize())).stream()
+                .filter(email -> outboxEmailRepository.claim(email.getId(), email.getAttempts(), leaseEnd) == 1)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Send the messages over a single connection, the {@link JavaMailSender} connecting once for all of them.
+     */
+    private void send(Map<MimeMessage, OutboxEmail> messages, Map<Long, String> errors) {
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[messages.size()]));
+        } catch (MailSendException e) {
+            // the messages not listed have been sent, the connection may have failed to close afterwards
+            e.getFailedMessages().forEach((message, exception) -> {
+                OutboxEmail email = messages.get(message);
+                if (email != null) {
+                    errors.put(email.getId(), exception.toString());
+                }
+            });
+        } catch (MailException e) {
+            messages.values().forEach(email -> errors.put(email.getId(), e.toString()));
+        }
+    }
+
+    /**
+     * Delete the sent emails, and postpone or give up the failed ones.
+     */
+    private void complete(List<OutboxEmail> batch, Map<Long, String> errors) {
+        List<OutboxEmail> delivered = batch.stream()
+            .filter(email -> !errors.containsKey(email.getId()))
+            .collect(Collectors.toList());
+        Instant now = Instant.now();
+        transactionTemplate.execute(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEmailRepository.deleteInBatch(delivered);
+            }
+            errors.forEach((id, error) -> {
+                OutboxEmail email = outboxEmailRepository.findOne(id);
+                if (email != null) {
+                    reschedule(email, error, now);
+                }
+            });
+            return null;
+        });
+        sent.mark(delivered.size());
+        failed.mark(errors.size());
+    }
+
+    private void reschedule(OutboxEmail email, String error, Instant now) {
+        email.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (email.getAttempts() >= properties.getMaxAttempts()) {
+            email.setNextAttemptDate(null);
+            givenUp.mark();
+            log.error("Giving up email {} to '{}' after {} attempts: {}", email.getId(), email.getRecipient(),
+                email.getAttempts(), error);
+            return;
+        }
+        long backoff = properties.getInitialBackoffSeconds() << Math.min(email.getAttempts() - 1, 30);
+        email.setNextAttemptDate(now.plusSeconds(Math.min(backoff, properties.getMaxBackoffSeconds())));
+        log.warn("Email {} to '{}' could not be sent, attempt {} of {}: {}", email.getId(), email.getRecipient(),
+            email.getAttempts(), properties.getMaxAttempts(), error);
+    }
+}
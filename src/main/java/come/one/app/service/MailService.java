@@ -1,6 +1,9 @@
 package come.one.app.service;
 
+import come.one.app.config.Constants;
+import come.one.app.domain.OutboxEmail;
 import come.one.app.domain.User;
+import come.one.app.repository.OutboxEmailRepository;
 
 import io.github.jhipster.config.JHipsterProperties;
 
@@ -10,18 +13,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring4.SpringTemplateEngine;
 
+import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
+import java.time.Instant;
 import java.util.Locale;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the @Async annotation to send emails asynchronously.
+ * The emails are written to the outbox in the current transaction, so they are only sent if it commits, and
+ * they don't wait for the mail server. They are sent by the {@link MailOutboxDispatcher}.
  */
 @Service
 public class MailService {
@@ -40,64 +46,92 @@ public class MailService {
 
     private final SpringTemplateEngine templateEngine;
 
+    private final OutboxEmailRepository outboxEmailRepository;
+
     public MailService(JHipsterProperties jHipsterProperties, JavaMailSender javaMailSender,
-            MessageSource messageSource, SpringTemplateEngine templateEngine) {
+            MessageSource messageSource, SpringTemplateEngine templateEngine,
+            OutboxEmailRepository outboxEmailRepository) {
 
         this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.outboxEmailRepository = outboxEmailRepository;
     }
 
-    @Async
+    @Transactional
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        log.debug("Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+        log.debug("Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart, isHtml, to, subject, content);
 
+        Instant now = Instant.now();
+        OutboxEmail email = new OutboxEmail();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setContent(content);
+        email.setMultipart(isMultipart);
+        email.setHtml(isHtml);
+        email.setCreatedDate(now);
+        email.setNextAttemptDate(now);
+        outboxEmailRepository.save(email);
+    }
+
+    /**
+     * Create the message of an email of the outbox.
+     *
+     * @param email the email to send
+     * @return the message
+     * @throws MessagingException if the message can't be created from the email
+     */
+    public MimeMessage createMimeMessage(OutboxEmail email) throws MessagingException {
         // Prepare message using a Spring helper
         MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, CharEncoding.UTF_8);
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (Exception e) {
-            if (log.isDebugEnabled()) {
-                log.warn("Email could not be sent to user '{}'", to, e);
-            } else {
-                log.warn("Email could not be sent to user '{}': {}", to, e.getMessage());
-            }
-        }
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, email.isMultipart(), CharEncoding.UTF_8);
+        message.setTo(email.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(email.getSubject());
+        message.setText(email.getContent(), email.isHtml());
+        return mimeMessage;
     }
 
-    @Async
+    /**
+     * Queue an email rendered from a template, in the language of the user, or in the default language if the
+     * user has none.
+     * <p>
+     * The email is rendered in the transaction of the caller, so a rendering failure is only logged, as it was
+     * when the emails were sent asynchronously, instead of rolling back the change which sends the email.
+     */
+    @Transactional
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
+        Locale locale = Locale.forLanguageTag(user.getLangKey() == null ? Constants.DEFAULT_LANGUAGE : user.getLangKey());
+        String content;
+        String subject;
+        try {
+            Context context = new Context(locale);
+            context.setVariable(USER, user);
+            context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+            content = templateEngine.process(templateName, context);
+            subject = messageSource.getMessage(titleKey, null, locale);
+        } catch (RuntimeException e) {
+            log.warn("Email '{}' could not be rendered for user '{}', not sending it", templateName, user.getEmail(), e);
+            return;
+        }
         sendEmail(user.getEmail(), subject, content, false, true);
-
     }
 
-    @Async
+    @Transactional
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "activationEmail", "email.activation.title");
     }
 
-    @Async
+    @Transactional
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "creationEmail", "email.activation.title");
     }
 
-    @Async
+    @Transactional
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "passwordResetEmail", "email.reset.title");
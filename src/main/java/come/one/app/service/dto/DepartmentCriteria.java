@@ -69,6 +69,10 @@ public class DepartmentCriteria implements Serializable {
         this.employeeId = employeeId;
     }
 
+    /**
+     * Also the fingerprint of the estimated counts of the {@link come.one.app.service.CountEstimator}, so it must
+     * have every filter.
+     */
     @Override
     public String toString() {
         return "DepartmentCriteria{" +
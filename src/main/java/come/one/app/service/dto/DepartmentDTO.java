@@ -13,10 +13,25 @@ public class DepartmentDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private String name;
 
     private Long area;
 
+    public DepartmentDTO() {
+    }
+
+    /**
+     * Constructor used by the projection queries, which select the columns straight into the DTO.
+     */
+    public DepartmentDTO(Long id, Long version, String name, Long area) {
+        this.id = id;
+        this.version = version;
+        this.name = name;
+        this.area = area;
+    }
+
     public Long getId() {
         return id;
     }
@@ -25,6 +40,14 @@ public class DepartmentDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -66,6 +89,7 @@ public class DepartmentDTO implements Serializable {
     public String toString() {
         return "DepartmentDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", name='" + getName() + "'" +
             ", area=" + getArea() +
             "}";
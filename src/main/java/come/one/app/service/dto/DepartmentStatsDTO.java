@@ -0,0 +1,85 @@
+package come.one.app.service.dto;
+
+
+import java.io.Serializable;
+
+/**
+ * The employee statistics of a department.
+ */
+public class DepartmentStatsDTO implements Serializable {
+
+    private Long departmentId;
+
+    private long employeeCount;
+
+    private Double averageAge;
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    public DepartmentStatsDTO() {
+    }
+
+    public DepartmentStatsDTO(Long departmentId, long employeeCount, Double averageAge, Integer minAge, Integer maxAge) {
+        this.departmentId = departmentId;
+        this.employeeCount = employeeCount;
+        this.averageAge = averageAge;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public long getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public void setEmployeeCount(long employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    /**
+     * @return the average age of the employees whose age is known, or null if there is none
+     */
+    public Double getAverageAge() {
+        return averageAge;
+    }
+
+    public void setAverageAge(Double averageAge) {
+        this.averageAge = averageAge;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    public String toString() {
+        return "DepartmentStatsDTO{" +
+            "departmentId=" + getDepartmentId() +
+            ", employeeCount=" + getEmployeeCount() +
+            ", averageAge=" + getAverageAge() +
+            ", minAge=" + getMinAge() +
+            ", maxAge=" + getMaxAge() +
+            "}";
+    }
+}
@@ -0,0 +1,80 @@
+package come.one.app.service.dto;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the result of one item of an Employee bulk save.
+ */
+public class EmployeeBulkResultDTO implements Serializable {
+
+    /**
+     * The outcome of a bulk item. FAILED items belong to a batch which couldn't be saved, and weren't saved.
+     */
+    public enum Status {
+        CREATED, UPDATED, INVALID, NOT_FOUND, FAILED
+    }
+
+    private int index;
+
+    private Long id;
+
+    private Status status;
+
+    private List<String> errors = new ArrayList<>();
+
+    public EmployeeBulkResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public EmployeeBulkResultDTO(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return the position of the item in the request, starting at 0
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeBulkResultDTO{" +
+            "index=" + getIndex() +
+            ", id=" + getId() +
+            ", status=" + getStatus() +
+            ", errors=" + getErrors() +
+            "}";
+    }
+}
@@ -79,6 +79,10 @@ public class EmployeeCriteria implements Serializable {
         this.departmentId = departmentId;
     }
 
+    /**
+     * Also the fingerprint of the estimated counts of the {@link come.one.app.service.CountEstimator}, so it must
+     * have every filter.
+     */
     @Override
     public String toString() {
         return "EmployeeCriteria{" +
@@ -0,0 +1,124 @@
+package come.one.app.service.dto;
+
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * A DTO for the Employee entity, used by the listings. Its department is serialized as in the entity.
+ */
+public class EmployeeDTO implements Serializable {
+
+    private Long id;
+
+    private Long version;
+
+    private String name;
+
+    private Integer age;
+
+    private ZonedDateTime birthday;
+
+    private DepartmentDTO department;
+
+    public EmployeeDTO() {
+    }
+
+    /**
+     * Constructor used by the projection queries, which select the columns straight into the DTO: the department
+     * columns are null when the employee has no department.
+     */
+    public EmployeeDTO(Long id, Long version, String name, Integer age, ZonedDateTime birthday,
+                       Long departmentId, Long departmentVersion, String departmentName, Long departmentArea) {
+        this.id = id;
+        this.version = version;
+        this.name = name;
+        this.age = age;
+        this.birthday = birthday;
+        if (departmentId != null) {
+            this.department = new DepartmentDTO(departmentId, departmentVersion, departmentName, departmentArea);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public ZonedDateTime getBirthday() {
+        return birthday;
+    }
+
+    public void setBirthday(ZonedDateTime birthday) {
+        this.birthday = birthday;
+    }
+
+    public DepartmentDTO getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(DepartmentDTO department) {
+        this.department = department;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        EmployeeDTO employeeDTO = (EmployeeDTO) o;
+        if(employeeDTO.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), employeeDTO.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeDTO{" +
+            "id=" + getId() +
+            ", version=" + getVersion() +
+            ", name='" + getName() + "'" +
+            ", age=" + getAge() +
+            ", birthday='" + getBirthday() + "'" +
+            ", department=" + getDepartment() +
+            "}";
+    }
+}
@@ -0,0 +1,46 @@
+package come.one.app.service.dto;
+
+
+import java.io.Serializable;
+
+/**
+ * An employee matching a name search.
+ */
+public class EmployeeSearchResultDTO implements Serializable {
+
+    private Long id;
+
+    private String name;
+
+    public EmployeeSearchResultDTO() {
+    }
+
+    public EmployeeSearchResultDTO(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeSearchResultDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,31 @@
+package come.one.app.service.dto;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * A {@link org.springframework.data.domain.Slice} fetched with keyset pagination, which carries the cursor
+ * of the following slice.
+ *
+ * @param <T> the type of the content
+ */
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final KeysetCursor nextCursor;
+
+    public KeysetSlice(List<T> content, Pageable pageable, KeysetCursor nextCursor) {
+        super(content, pageable, nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the cursor pointing after the last element of this slice, or null if this is the last slice
+     */
+    public KeysetCursor getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,382 @@
+package come.one.app.service.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of names, searched by substring or by word prefix, and safe for concurrent use.
+ * <p>
+ * Names are folded to lower case without accents, and split in trigrams, the start of each word being marked by a
+ * space: "Lê Văn" gives " le", "le ", "e v", " va" and "van". Each trigram lists the documents containing it, in
+ * increasing order, as documents are only ever appended: a changed name is a new document, the previous one being
+ * left as a tombstone until the index is compacted.
+ * <p>
+ * A query of three characters or more matches the names containing it, and a shorter query the names having a
+ * word starting with it, for which the one and two characters word starts are indexed too.
+ */
+public class TrigramIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Approximate sizes of the objects, in bytes, with compressed references.
+     */
+    private static final int OBJECT_HEADER = 12;
+
+    private static final int ARRAY_HEADER = 16;
+
+    private static final int REFERENCE = 4;
+
+    private static final int HASH_MAP_ENTRY = 32;
+
+    private static final int BOXED_NUMBER = 16;
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt((Match match) -> match.rank)
+        .thenComparingInt(match -> match.name.length())
+        .thenComparingLong(match -> match.id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+
+    private int size;
+
+    private int deleted;
+
+    private final Map<Long, Integer> documents = new HashMap<>();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Add or replace the name of an identifier.
+     *
+     * @param id the identifier of the name
+     * @param name the name, or null to remove the identifier
+     */
+    public void put(long id, String name) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            if (name != null) {
+                addDocument(id, name, normalize(name));
+            }
+            if (deleted > INITIAL_CAPACITY && deleted > size - deleted) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the name of an identifier.
+     *
+     * @param id the identifier of the name
+     */
+    public void remove(long id) {
+        put(id, null);
+    }
+
+    /**
+     * Find the names matching a query, the best first: the names equal to the query, then starting with it, then
+     * having a word starting with it, then containing it, and the shorter names first.
+     *
+     * @param query the text to search
+     * @param limit the maximum number of matches to return
+     * @param maxCandidates the maximum number of names to rank, above which the remaining names are not looked at
+     * @return the best matches
+     */
+    public List<Match> search(String query, int limit, int maxCandidates) {
+        String key = normalize(query);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (long gram : queryGrams(key)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return Collections.emptyList();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            Postings smallest = lists.get(0);
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            int candidates = 0;
+            for (int i = 0; i < smallest.size && candidates < maxCandidates; i++) {
+                int document = smallest.documents[i];
+                if (names[document] == null || !containsAll(lists, document)) {
+                    continue;
+                }
+                int rank = rank(keys[document], key);
+                if (rank < 0) {
+                    continue;
+                }
+                candidates++;
+                best.add(new Match(ids[document], names[document], rank));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Match> result = new ArrayList<>(best);
+            result.sort(RANKING);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of names in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of distinct trigrams in the index
+     */
+    public int grams() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return an estimate of the heap used by the index, in bytes
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = ARRAY_HEADER + 8L * ids.length + 2 * (ARRAY_HEADER + (long) REFERENCE * names.length);
+            for (int i = 0; i < size; i++) {
+                if (names[i] != null) {
+                    bytes += stringBytes(names[i]);
+                    // the key is often the name itself, when it has no upper case letter nor accent
+                    if (keys[i] != names[i]) {
+                        bytes += stringBytes(keys[i]);
+                    }
+                }
+            }
+            bytes += (long) documents.size() * (HASH_MAP_ENTRY + 2 * BOXED_NUMBER);
+            for (Postings list : postings.values()) {
+                bytes += HASH_MAP_ENTRY + BOXED_NUMBER + OBJECT_HEADER + 8 + ARRAY_HEADER + 4L * list.documents.length;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fold a text to lower case without accents, with single spaces between the words.
+     */
+    private static String normalize(String text) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .replace('\u0111', 'd').replace('\u0110', 'd')
+            .toLowerCase(Locale.ROOT);
+        return WHITESPACES.matcher(folded).replaceAll(" ").trim();
+    }
+
+    private void addDocument(long id, String name, String key) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        int document = size++;
+        ids[document] = id;
+        names[document] = name;
+        keys[document] = key.equals(name) ? name : key;
+        documents.put(id, document);
+        for (long gram : documentGrams(key)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(document);
+        }
+    }
+
+    private void removeDocument(long id) {
+        Integer document = documents.remove(id);
+        if (document != null) {
+            names[document] = null;
+            keys[document] = null;
+            deleted++;
+        }
+    }
+
+    /**
+     * Renumber the documents without the tombstones.
+     */
+    private void compact() {
+        long[] oldIds = ids;
+        String[] oldNames = names;
+        String[] oldKeys = keys;
+        int oldSize = size;
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, oldSize - deleted)) * 2);
+        ids = new long[capacity];
+        names = new String[capacity];
+        keys = new String[capacity];
+        size = 0;
+        deleted = 0;
+        documents.clear();
+        postings.clear();
+        for (int i = 0; i < oldSize; i++) {
+            if (oldNames[i] != null) {
+                addDocument(oldIds[i], oldNames[i], oldKeys[i]);
+            }
+        }
+    }
+
+    private static List<Long> documentGrams(String key) {
+        String padded = " " + key;
+        List<Long> grams = new ArrayList<>(padded.length() * 2);
+        for (int i = 0; i < padded.length(); i++) {
+            if (padded.charAt(i) == ' ' && i + 1 < padded.length()) {
+                // the one character word start
+                grams.add(gram(' ', padded.charAt(i + 1), (char) 0));
+            }
+            if (i + 2 < padded.length()) {
+                grams.add(gram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+            }
+        }
+        return grams;
+    }
+
+    private static List<Long> queryGrams(String key) {
+        if (key.length() == 1) {
+            return Collections.singletonList(gram(' ', key.charAt(0), (char) 0));
+        }
+        if (key.length() == 2) {
+            return Collections.singletonList(gram(' ', key.charAt(0), key.charAt(1)));
+        }
+        List<Long> grams = new ArrayList<>(key.length() - 2);
+        for (int i = 0; i + 2 < key.length(); i++) {
+            grams.add(gram(key.charAt(i), key.charAt(i + 1), key.charAt(i + 2)));
+        }
+        return grams;
+    }
+
+    private static long gram(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    private static boolean containsAll(List<Postings> lists, int document) {
+        for (int i = 1; i < lists.size(); i++) {
+            Postings list = lists.get(i);
+            if (Arrays.binarySearch(list.documents, 0, list.size, document) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the rank of the key for the query, the lower the better, or -1 if it doesn't match: the trigrams
+     * of the query can be found in a key which doesn't contain it
+     */
+    private static int rank(String key, String query) {
+        if (key.equals(query)) {
+            return 0;
+        }
+        if (key.startsWith(query)) {
+            return 1;
+        }
+        if (key.contains(" " + query)) {
+            return 2;
+        }
+        if (query.length() > 2 && key.contains(query)) {
+            return 3;
+        }
+        return -1;
+    }
+
+    private static long stringBytes(String value) {
+        // the String and its char array, 8 bytes aligned
+        return 24 + ((ARRAY_HEADER + 2L * value.length() + 7) & ~7);
+    }
+
+    /**
+     * The documents containing a trigram, in increasing order.
+     */
+    private static class Postings {
+
+        private int[] documents = new int[2];
+
+        private int size;
+
+        void add(int document) {
+            if (size > 0 && documents[size - 1] == document) {
+                // the trigram is repeated in the name
+                return;
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+    }
+
+    /**
+     * A name matching a query.
+     */
+    public static class Match {
+
+        private final long id;
+
+        private final String name;
+
+        private final int rank;
+
+        Match(long id, String name, int rank) {
+            this.id = id;
+            this.name = name;
+            this.rank = rank;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{" +
+                "id=" + id +
+                ", name='" + name + "'" +
+                ", rank=" + rank +
+                "}";
+        }
+    }
+}
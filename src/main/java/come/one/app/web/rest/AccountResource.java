@@ -5,7 +5,6 @@ import com.codahale.metrics.annotation.Timed;
 import come.one.app.domain.User;
 import come.one.app.repository.UserRepository;
 import come.one.app.security.SecurityUtils;
-import come.one.app.service.MailService;
 import come.one.app.service.UserService;
 import come.one.app.service.dto.UserDTO;
 import come.one.app.web.rest.errors.*;
@@ -35,13 +34,10 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    public AccountResource(UserRepository userRepository, UserService userService) {
 
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
     }
 
     /**
@@ -61,8 +57,7 @@ public class AccountResource {
         }
         userRepository.findOneByLogin(managedUserVM.getLogin().toLowerCase()).ifPresent(u -> {throw new LoginAlreadyUsedException();});
         userRepository.findOneByEmailIgnoreCase(managedUserVM.getEmail()).ifPresent(u -> {throw new EmailAlreadyUsedException();});
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -154,10 +149,8 @@ public class AccountResource {
     @PostMapping(path = "/account/reset-password/init")
     @Timed
     public void requestPasswordReset(@RequestBody String mail) {
-       mailService.sendPasswordResetMail(
-           userService.requestPasswordReset(mail)
-               .orElseThrow(EmailNotFoundException::new)
-       );
+       userService.requestPasswordReset(mail)
+           .orElseThrow(EmailNotFoundException::new);
     }
 
     /**
@@ -1,23 +1,32 @@
 package come.one.app.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import come.one.app.domain.Department;
 import come.one.app.service.DepartmentService;
+import come.one.app.service.DepartmentStatsService;
+import come.one.app.service.EntityChangeCounter;
 import come.one.app.web.rest.errors.BadRequestAlertException;
+import come.one.app.web.rest.errors.PreconditionFailedException;
+import come.one.app.web.rest.util.ConditionalRequestUtil;
 import come.one.app.web.rest.util.HeaderUtil;
+import come.one.app.web.rest.util.CountMode;
 import come.one.app.web.rest.util.PaginationUtil;
 import come.one.app.service.dto.DepartmentDTO;
 import come.one.app.service.dto.DepartmentCriteria;
+import come.one.app.service.dto.DepartmentStatsDTO;
 import come.one.app.service.DepartmentQueryService;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.net.URI;
 import java.net.URISyntaxException;
 
@@ -26,6 +35,11 @@ import java.util.Optional;
 
 /**
  * REST controller for managing Department.
+ * <p>
+ * The departments and their listings have an ETag, so the GET requests with a matching If-None-Match are answered
+ * with status 304 (Not Modified) without serializing them. The tag of a department is its version, and the tag of
+ * the listings is made of the number of changes of the departments, counted by the {@link EntityChangeCounter}, and
+ * is left out when these counts may not follow the content, see {@link EntityChangeCounter#isComplete()}.
  */
 @RestController
 @RequestMapping("/api")
@@ -39,9 +53,16 @@ public class DepartmentResource {
 
     private final DepartmentQueryService departmentQueryService;
 
-    public DepartmentResource(DepartmentService departmentService, DepartmentQueryService departmentQueryService) {
+    private final DepartmentStatsService departmentStatsService;
+
+    private final EntityChangeCounter entityChangeCounter;
+
+    public DepartmentResource(DepartmentService departmentService, DepartmentQueryService departmentQueryService,
+                              DepartmentStatsService departmentStatsService, EntityChangeCounter entityChangeCounter) {
         this.departmentService = departmentService;
         this.departmentQueryService = departmentQueryService;
+        this.departmentStatsService = departmentStatsService;
+        this.entityChangeCounter = entityChangeCounter;
     }
 
     /**
@@ -66,20 +87,34 @@ public class DepartmentResource {
 
     /**
      * PUT  /departments : Updates an existing department.
+     * <p>
+     * With an If-Match header, the department is only updated if it matches its current ETag. Otherwise it is only
+     * updated if its version is the current one, or if it has no version.
      *
      * @param departmentDTO the departmentDTO to update
+     * @param request the request, with its optional If-Match header
      * @return the ResponseEntity with status 200 (OK) and with body the updated departmentDTO,
      * or with status 400 (Bad Request) if the departmentDTO is not valid,
+     * or with status 409 (Conflict) if the department was updated in between,
+     * or with status 412 (Precondition Failed) if the If-Match header doesn't match,
      * or with status 500 (Internal Server Error) if the departmentDTO couldn't be updated
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
     @PutMapping("/departments")
     @Timed
-    public ResponseEntity<DepartmentDTO> updateDepartment(@RequestBody DepartmentDTO departmentDTO) throws URISyntaxException {
+    public ResponseEntity<DepartmentDTO> updateDepartment(@RequestBody DepartmentDTO departmentDTO, HttpServletRequest request) throws URISyntaxException {
         log.debug("REST request to update Department : {}", departmentDTO);
         if (departmentDTO.getId() == null) {
             return createDepartment(departmentDTO);
         }
+        if (request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            DepartmentDTO current = departmentService.findOne(departmentDTO.getId());
+            if (!ConditionalRequestUtil.isMatched(request, current == null ? null : ConditionalRequestUtil.createETag(current.getVersion()))) {
+                throw new PreconditionFailedException("The department doesn't match the If-Match header");
+            }
+            // checked again when saving, should the department be updated in between
+            departmentDTO.setVersion(current.getVersion());
+        }
         DepartmentDTO result = departmentService.save(departmentDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, departmentDTO.getId().toString()))
@@ -88,32 +123,103 @@ public class DepartmentResource {
 
     /**
      * GET  /departments : get all the departments.
+     * <p>
+     * The "count" parameter selects how the total is computed: "exact" (the default) counts all the matching
+     * departments, "none" only fetches the requested page and gives no total, and "estimate" gives a cached estimate.
      *
      * @param pageable the pagination information
      * @param criteria the criterias which the requested entities should match
-     * @return the ResponseEntity with status 200 (OK) and the list of departments in body
+     * @param count the count mode, "exact", "none" or "estimate"
+     * @param request the request, with its optional If-None-Match or If-Modified-Since header
+     * @return the ResponseEntity with status 200 (OK) and the list of departments in body,
+     * or with status 304 (Not Modified) if no department was changed since the ETag or date of the request,
+     * or with status 400 (Bad Request) if the count mode is not valid
      */
     @GetMapping("/departments")
     @Timed
-    public ResponseEntity<List<DepartmentDTO>> getAllDepartments(DepartmentCriteria criteria, Pageable pageable) {
-        log.debug("REST request to get Departments by criteria: {}", criteria);
-        Page<DepartmentDTO> page = departmentQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/departments");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    public ResponseEntity<List<DepartmentDTO>> getAllDepartments(DepartmentCriteria criteria, Pageable pageable, @RequestParam(value = "count", required = false) String count,
+                                                                 HttpServletRequest request) {
+        log.debug("REST request to get Departments by criteria: {}, count: {}", criteria, count);
+        CountMode countMode;
+        try {
+            countMode = CountMode.fromParameter(count);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcount");
+        }
+        boolean tagged = entityChangeCounter.isComplete();
+        // read before the query, so a change committed meanwhile is told by the next request
+        String eTag = ConditionalRequestUtil.createETag(entityChangeCounter.getEpoch(), entityChangeCounter.getCount(Department.class));
+        long lastModified = entityChangeCounter.getLastModified(Department.class);
+        if (tagged && ConditionalRequestUtil.isNotModified(request, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified(eTag, lastModified);
+        }
+        List<DepartmentDTO> content;
+        HttpHeaders headers;
+        switch (countMode) {
+            case NONE: {
+                Slice<DepartmentDTO> slice = departmentQueryService.findSliceByCriteria(criteria, pageable);
+                content = slice.getContent();
+                headers = PaginationUtil.generateSliceHttpHeaders(slice, "/api/departments?count=" + CountMode.NONE.toParameter());
+                break;
+            }
+            case ESTIMATE: {
+                Page<DepartmentDTO> page = departmentQueryService.findByCriteriaWithEstimatedCount(criteria, pageable);
+                content = page.getContent();
+                headers = PaginationUtil.generateEstimatedPaginationHttpHeaders(page, "/api/departments?count=" + CountMode.ESTIMATE.toParameter());
+                break;
+            }
+            default: {
+                Page<DepartmentDTO> page = departmentQueryService.findByCriteria(criteria, pageable);
+                content = page.getContent();
+                headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/departments");
+            }
+        }
+        if (tagged) {
+            headers.putAll(ConditionalRequestUtil.createHeaders(eTag, lastModified));
+        }
+        return new ResponseEntity<>(content, headers, HttpStatus.OK);
+    }
+
+    /**
+     * GET  /departments/stats : get the employee statistics of the departments.
+     * <p>
+     * Only the departments having employees are listed. The statistics are kept up to date by the application,
+     * without scanning the employees.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the statistics of each department in body
+     */
+    @GetMapping("/departments/stats")
+    @Timed
+    public ResponseEntity<List<DepartmentStatsDTO>> getDepartmentStats() {
+        log.debug("REST request to get the statistics of the Departments");
+        return ResponseEntity.ok(departmentStatsService.findAll());
     }
 
     /**
      * GET  /departments/:id : get the "id" department.
+     * <p>
+     * The departments are in the second level cache, so their version is usually known without querying the database.
      *
      * @param id the id of the departmentDTO to retrieve
-     * @return the ResponseEntity with status 200 (OK) and with body the departmentDTO, or with status 404 (Not Found)
+     * @param request the request, with its optional If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and with body the departmentDTO,
+     * or with status 304 (Not Modified) if the department matches the If-None-Match header, or with status 404 (Not Found)
      */
     @GetMapping("/departments/{id}")
     @Timed
-    public ResponseEntity<DepartmentDTO> getDepartment(@PathVariable Long id) {
+    public ResponseEntity<DepartmentDTO> getDepartment(@PathVariable Long id, HttpServletRequest request) {
         log.debug("REST request to get Department : {}", id);
         DepartmentDTO departmentDTO = departmentService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(Optional.ofNullable(departmentDTO));
+        if (departmentDTO == null) {
+            return ResponseUtil.wrapOrNotFound(Optional.empty());
+        }
+        String eTag = ConditionalRequestUtil.createETag(departmentDTO.getVersion());
+        if (ConditionalRequestUtil.isNotModified(request, eTag, -1)) {
+            return ConditionalRequestUtil.notModified(eTag, -1);
+        }
+        return ResponseEntity.ok()
+            .headers(ConditionalRequestUtil.createHeaders(eTag, -1))
+            .body(departmentDTO);
     }
 
     /**
@@ -1,24 +1,42 @@
 package come.one.app.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import come.one.app.domain.Department;
 import come.one.app.domain.Employee;
+import come.one.app.service.EmployeeBulkService;
+import come.one.app.service.EmployeeExportService;
+import come.one.app.service.EmployeeSearchService;
 import come.one.app.service.EmployeeService;
+import come.one.app.service.EntityChangeCounter;
 import come.one.app.web.rest.errors.BadRequestAlertException;
+import come.one.app.web.rest.errors.PreconditionFailedException;
+import come.one.app.web.rest.util.ConditionalRequestUtil;
 import come.one.app.web.rest.util.HeaderUtil;
+import come.one.app.web.rest.util.CountMode;
 import come.one.app.web.rest.util.PaginationUtil;
+import come.one.app.service.dto.EmployeeBulkResultDTO;
 import come.one.app.service.dto.EmployeeCriteria;
+import come.one.app.service.dto.EmployeeDTO;
+import come.one.app.service.dto.EmployeeSearchResultDTO;
+import come.one.app.service.dto.KeysetCursor;
+import come.one.app.service.dto.KeysetSlice;
 import come.one.app.service.EmployeeQueryService;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 
@@ -27,6 +45,12 @@ import java.util.Optional;
 
 /**
  * REST controller for managing Employee.
+ * <p>
+ * The employees and their listings have an ETag, so the GET requests with a matching If-None-Match are answered
+ * with status 304 (Not Modified) before they are loaded. The tag of an employee is made of its version and of the
+ * version of its department, whose name and area are part of its representation. The tag of the listings is made
+ * of the numbers of changes of the employees and departments, counted by the {@link EntityChangeCounter}, and is
+ * left out when these counts may not follow the content, see {@link EntityChangeCounter#isComplete()}.
  */
 @RestController
 @RequestMapping("/api")
@@ -40,9 +64,23 @@ public class EmployeeResource {
 
     private final EmployeeQueryService employeeQueryService;
 
-    public EmployeeResource(EmployeeService employeeService, EmployeeQueryService employeeQueryService) {
+    private final EmployeeExportService employeeExportService;
+
+    private final EmployeeBulkService employeeBulkService;
+
+    private final EmployeeSearchService employeeSearchService;
+
+    private final EntityChangeCounter entityChangeCounter;
+
+    public EmployeeResource(EmployeeService employeeService, EmployeeQueryService employeeQueryService,
+                            EmployeeExportService employeeExportService, EmployeeBulkService employeeBulkService,
+                            EmployeeSearchService employeeSearchService, EntityChangeCounter entityChangeCounter) {
         this.employeeService = employeeService;
         this.employeeQueryService = employeeQueryService;
+        this.employeeExportService = employeeExportService;
+        this.employeeBulkService = employeeBulkService;
+        this.employeeSearchService = employeeSearchService;
+        this.entityChangeCounter = entityChangeCounter;
     }
 
     /**
@@ -67,54 +105,229 @@ public class EmployeeResource {
 
     /**
      * PUT  /employees : Updates an existing employee.
+     * <p>
+     * With an If-Match header, the employee is only updated if it matches its current ETag. Otherwise it is only
+     * updated if its version is the current one, or if it has no version.
      *
      * @param employee the employee to update
+     * @param request the request, with its optional If-Match header
      * @return the ResponseEntity with status 200 (OK) and with body the updated employee,
      * or with status 400 (Bad Request) if the employee is not valid,
+     * or with status 409 (Conflict) if the employee was updated in between,
+     * or with status 412 (Precondition Failed) if the If-Match header doesn't match,
      * or with status 500 (Internal Server Error) if the employee couldn't be updated
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
     @PutMapping("/employees")
     @Timed
-    public ResponseEntity<Employee> updateEmployee(@Valid @RequestBody Employee employee) throws URISyntaxException {
+    public ResponseEntity<Employee> updateEmployee(@Valid @RequestBody Employee employee, HttpServletRequest request) throws URISyntaxException {
         log.debug("REST request to update Employee : {}", employee);
         if (employee.getId() == null) {
             return createEmployee(employee);
         }
+        if (request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            Object[] versions = employeeService.findVersions(employee.getId());
+            if (!ConditionalRequestUtil.isMatched(request, versions == null ? null : ConditionalRequestUtil.createETag(versions))) {
+                throw new PreconditionFailedException("The employee doesn't match the If-Match header");
+            }
+            // checked again when saving, should the employee be updated in between
+            employee.setVersion((Long) versions[0]);
+        }
         Employee result = employeeService.save(employee);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, employee.getId().toString()))
             .body(result);
     }
 
+    /**
+     * POST  /employees/bulk : Create or update employees in bulk.
+     * <p>
+     * The body is either a JSON array of employees, or newline delimited JSON. Employees without id are created,
+     * the others are updated. Each item is validated on its own, and the valid ones are saved in batches. The items
+     * of a batch which couldn't be saved, e.g. because of a constraint or a stale version, are reported as failed.
+     *
+     * @param request the request holding the employees
+     * @return the ResponseEntity with status 200 (OK) and with body the result of each item, in the request order
+     * @throws IOException if the request couldn't be read
+     */
+    @PostMapping(value = "/employees/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @Timed
+    public ResponseEntity<List<EmployeeBulkResultDTO>> bulkSaveEmployees(HttpServletRequest request) throws IOException {
+        log.debug("REST request to save Employees in bulk");
+        List<EmployeeBulkResultDTO> result = employeeBulkService.save(request.getInputStream());
+        return ResponseEntity.ok().body(result);
+    }
+
     /**
      * GET  /employees : get all the employees.
+     * <p>
+     * The "count" parameter selects how the total is computed: "exact" (the default) counts all the matching
+     * employees, "none" only fetches the requested page and gives no total, and "estimate" gives a cached estimate.
      *
      * @param pageable the pagination information
      * @param criteria the criterias which the requested entities should match
-     * @return the ResponseEntity with status 200 (OK) and the list of employees in body
+     * @param count the count mode, "exact", "none" or "estimate"
+     * @param request the request, with its optional If-None-Match or If-Modified-Since header
+     * @return the ResponseEntity with status 200 (OK) and the list of employees in body,
+     * or with status 304 (Not Modified) if no employee or department was changed since the ETag or date of the request,
+     * or with status 400 (Bad Request) if the count mode is not valid
      */
     @GetMapping("/employees")
     @Timed
-    public ResponseEntity<List<Employee>> getAllEmployees(EmployeeCriteria criteria, Pageable pageable) {
-        log.debug("REST request to get Employees by criteria: {}", criteria);
-        Page<Employee> page = employeeQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/employees");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    public ResponseEntity<List<EmployeeDTO>> getAllEmployees(EmployeeCriteria criteria, Pageable pageable, @RequestParam(value = "count", required = false) String count,
+                                                             HttpServletRequest request) {
+        log.debug("REST request to get Employees by criteria: {}, count: {}", criteria, count);
+        CountMode countMode;
+        try {
+            countMode = CountMode.fromParameter(count);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcount");
+        }
+        boolean tagged = entityChangeCounter.isComplete();
+        // read before the query, so a change committed meanwhile is told by the next request
+        String eTag = createListETag();
+        long lastModified = entityChangeCounter.getLastModified(Employee.class, Department.class);
+        if (tagged && ConditionalRequestUtil.isNotModified(request, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified(eTag, lastModified);
+        }
+        List<EmployeeDTO> content;
+        HttpHeaders headers;
+        switch (countMode) {
+            case NONE: {
+                Slice<EmployeeDTO> slice = employeeQueryService.findSliceByCriteria(criteria, pageable);
+                content = slice.getContent();
+                headers = PaginationUtil.generateSliceHttpHeaders(slice, "/api/employees?count=" + CountMode.NONE.toParameter());
+                break;
+            }
+            case ESTIMATE: {
+                Page<EmployeeDTO> page = employeeQueryService.findByCriteriaWithEstimatedCount(criteria, pageable);
+                content = page.getContent();
+                headers = PaginationUtil.generateEstimatedPaginationHttpHeaders(page, "/api/employees?count=" + CountMode.ESTIMATE.toParameter());
+                break;
+            }
+            default: {
+                Page<EmployeeDTO> page = employeeQueryService.findByCriteria(criteria, pageable);
+                content = page.getContent();
+                headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/employees");
+            }
+        }
+        if (tagged) {
+            headers.putAll(ConditionalRequestUtil.createHeaders(eTag, lastModified));
+        }
+        return new ResponseEntity<>(content, headers, HttpStatus.OK);
+    }
+
+    /**
+     * GET  /employees?after=:cursor : get the employees with keyset pagination.
+     * <p>
+     * Use an empty cursor to get the first slice, then follow the "next" link of the Link header.
+     * Only the "id" and "name" properties can be used as sort, and the sort is carried by the cursor.
+     *
+     * @param after the opaque cursor returned by the previous slice
+     * @param pageable the size and sort of the slice
+     * @param criteria the criterias which the requested entities should match
+     * @param request the request, with its optional If-None-Match or If-Modified-Since header
+     * @return the ResponseEntity with status 200 (OK) and the list of employees in body,
+     * or with status 304 (Not Modified) if no employee or department was changed since the ETag or date of the request,
+     * or with status 400 (Bad Request) if the cursor or the sort are not valid
+     */
+    @GetMapping(value = "/employees", params = "after")
+    @Timed
+    public ResponseEntity<List<EmployeeDTO>> getAllEmployeesAfter(@RequestParam("after") String after, EmployeeCriteria criteria, Pageable pageable,
+                                                                  HttpServletRequest request) {
+        log.debug("REST request to get Employees by criteria: {} after: {}", criteria, after);
+        boolean tagged = entityChangeCounter.isComplete();
+        String eTag = createListETag();
+        long lastModified = entityChangeCounter.getLastModified(Employee.class, Department.class);
+        if (tagged && ConditionalRequestUtil.isNotModified(request, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified(eTag, lastModified);
+        }
+        KeysetSlice<EmployeeDTO> slice;
+        try {
+            slice = employeeQueryService.findByCriteria(criteria, KeysetCursor.decode(after), pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcursor");
+        }
+        HttpHeaders headers = PaginationUtil.generateKeysetHttpHeaders(slice, "/api/employees", request.getParameterMap());
+        if (tagged) {
+            headers.putAll(ConditionalRequestUtil.createHeaders(eTag, lastModified));
+        }
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * GET  /employees/_search?q=:query : search the employees by name, for typeahead.
+     * <p>
+     * Queries of 3 characters or more match the names containing them, shorter ones the names having a word
+     * starting with them. Case and accents are ignored. The exact matches come first, then the names starting with
+     * the query, then the names having a word starting with it, then the others.
+     *
+     * @param query the text to search
+     * @param limit the maximum number of employees to return
+     * @return the ResponseEntity with status 200 (OK) and the matching employees in body
+     */
+    @GetMapping("/employees/_search")
+    @Timed
+    public ResponseEntity<List<EmployeeSearchResultDTO>> searchEmployees(@RequestParam("q") String query,
+                                                                         @RequestParam(value = "limit", required = false) Integer limit) {
+        log.debug("REST request to search Employees for: {}", query);
+        return ResponseEntity.ok(employeeSearchService.search(query, limit));
+    }
+
+    /**
+     * GET  /employees/export : export all the employees matching the criteria.
+     * <p>
+     * The employees are streamed from the database to the response, one per line, ordered by id.
+     *
+     * @param criteria the criterias which the exported entities should match
+     * @param format the format of the export, "ndjson" (the default) or "csv"
+     * @param response the response the export is written to
+     * @throws IOException if the export couldn't be written
+     */
+    @GetMapping("/employees/export")
+    @Timed
+    public void exportEmployees(EmployeeCriteria criteria, @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Employees by criteria: {} as {}", criteria, format);
+        EmployeeExportService.Format exportFormat;
+        try {
+            exportFormat = EmployeeExportService.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidformat");
+        }
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees." + exportFormat.getExtension() + "\"");
+        employeeExportService.export(criteria, exportFormat, response.getOutputStream());
     }
 
     /**
      * GET  /employees/:id : get the "id" employee.
      *
      * @param id the id of the employee to retrieve
-     * @return the ResponseEntity with status 200 (OK) and with body the employee, or with status 404 (Not Found)
+     * @param request the request, with its optional If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and with body the employee,
+     * or with status 304 (Not Modified) if the employee matches the If-None-Match header, or with status 404 (Not Found)
      */
     @GetMapping("/employees/{id}")
     @Timed
-    public ResponseEntity<Employee> getEmployee(@PathVariable Long id) {
+    public ResponseEntity<Employee> getEmployee(@PathVariable Long id, HttpServletRequest request) {
         log.debug("REST request to get Employee : {}", id);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Object[] versions = employeeService.findVersions(id);
+            if (versions != null) {
+                String eTag = ConditionalRequestUtil.createETag(versions);
+                if (ConditionalRequestUtil.isNotModified(request, eTag, -1)) {
+                    return ConditionalRequestUtil.notModified(eTag, -1);
+                }
+            }
+        }
         Employee employee = employeeService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(Optional.ofNullable(employee));
+        if (employee == null) {
+            return ResponseUtil.wrapOrNotFound(Optional.empty());
+        }
+        return ResponseEntity.ok()
+            .headers(ConditionalRequestUtil.createHeaders(createETag(employee), -1))
+            .body(employee);
     }
 
     /**
@@ -130,4 +343,21 @@ public class EmployeeResource {
         employeeService.delete(id);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString())).build();
     }
+
+    /**
+     * The same tag as the one built from {@link EmployeeService#findVersions}.
+     */
+    private static String createETag(Employee employee) {
+        Department department = employee.getDepartment();
+        return ConditionalRequestUtil.createETag(employee.getVersion(),
+            department == null ? null : department.getId(), department == null ? null : department.getVersion());
+    }
+
+    /**
+     * The listings have the name and area of the departments, so their tag also changes with the departments.
+     */
+    private String createListETag() {
+        return ConditionalRequestUtil.createETag(entityChangeCounter.getEpoch(),
+            entityChangeCounter.getCount(Employee.class), entityChangeCounter.getCount(Department.class));
+    }
 }
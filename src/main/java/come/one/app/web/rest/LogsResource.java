@@ -1,11 +1,13 @@
 package come.one.app.web.rest;
 
+import come.one.app.aop.logging.LoggerLevelChangedEvent;
 import come.one.app.web.rest.vm.LoggerVM;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.LoggerContext;
 import com.codahale.metrics.annotation.Timed;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +21,12 @@ import java.util.stream.Collectors;
 @RequestMapping("/management")
 public class LogsResource {
 
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public LogsResource(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     @GetMapping("/logs")
     @Timed
     public List<LoggerVM> getList() {
@@ -35,5 +43,6 @@ public class LogsResource {
     public void changeLevel(@RequestBody LoggerVM jsonLogger) {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
         context.getLogger(jsonLogger.getName()).setLevel(Level.valueOf(jsonLogger.getLevel()));
+        applicationEventPublisher.publishEvent(new LoggerLevelChangedEvent(jsonLogger.getName(), jsonLogger.getLevel()));
     }
 }
@@ -5,7 +5,6 @@ import com.codahale.metrics.annotation.Timed;
 import come.one.app.domain.User;
 import come.one.app.repository.UserRepository;
 import come.one.app.security.AuthoritiesConstants;
-import come.one.app.service.MailService;
 import come.one.app.service.UserService;
 import come.one.app.service.dto.UserDTO;
 import come.one.app.web.rest.errors.BadRequestAlertException;
@@ -64,13 +63,10 @@ public class UserResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
-    public UserResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    public UserResource(UserRepository userRepository, UserService userService) {
 
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
     }
 
     /**
@@ -100,7 +96,6 @@ public class UserResource {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity.created(new URI("/api/users/" + newUser.getLogin()))
                 .headers(HeaderUtil.createAlert( "A user is created with identifier " + newUser.getLogin(), newUser.getLogin()))
                 .body(newUser);
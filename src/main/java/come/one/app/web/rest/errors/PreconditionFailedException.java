@@ -0,0 +1,15 @@
+package come.one.app.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+/**
+ * Simple exception with a message, that returns a Precondition Failed code, e.g. when the If-Match header of an
+ * update doesn't match the current version of the entity.
+ */
+public class PreconditionFailedException extends AbstractThrowableProblem {
+
+    public PreconditionFailedException(String message) {
+        super(ErrorConstants.DEFAULT_TYPE, message, Status.PRECONDITION_FAILED);
+    }
+}
@@ -0,0 +1,121 @@
+package come.one.app.web.rest.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.StringJoiner;
+
+/**
+ * Utility class for the conditional requests: ETag and Last-Modified headers, and If-None-Match, If-Modified-Since
+ * and If-Match checks.
+ * <p>
+ * The responses having an ETag are sent with "Cache-Control: no-cache" rather than the "no-store" written by
+ * Spring Security, so the browsers keep them and revalidate them on each use.
+ */
+public final class ConditionalRequestUtil {
+
+    private ConditionalRequestUtil() {
+    }
+
+    /**
+     * Create a strong entity tag from the given parts, joined with dots, the null ones being skipped.
+     */
+    public static String createETag(Object... parts) {
+        StringJoiner joiner = new StringJoiner(".", "\"", "\"");
+        for (Object part : parts) {
+            if (part != null) {
+                joiner.add(part.toString());
+            }
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Check whether the client already has the current representation of a resource, from the If-None-Match
+     * header, or from the If-Modified-Since header when there is no If-None-Match.
+     *
+     * @param request the GET request
+     * @param eTag the current entity tag of the resource
+     * @param lastModified the time of the last change of the resource, in milliseconds, or -1 if unknown
+     * @return true if the request should be answered with status 304 (Not Modified)
+     */
+    public static boolean isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, eTag, false);
+        }
+        if (lastModified < 0) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Check the If-Match header of a request changing a resource, with the strong comparison.
+     *
+     * @param request the request
+     * @param eTag the current entity tag of the resource, or null if it doesn't exist
+     * @return true if there is no If-Match header or if it matches, false if the request should be answered with
+     * status 412 (Precondition Failed)
+     */
+    public static boolean isMatched(HttpServletRequest request, String eTag) {
+        String ifMatch = request.getHeader(HttpHeaders.IF_MATCH);
+        return ifMatch == null || matches(ifMatch, eTag, true);
+    }
+
+    /**
+     * Create the headers of a response with the given entity tag and last change time.
+     * <p>
+     * The Last-Modified header is left out while the second of the last change isn't over, as a further change
+     * in the same second wouldn't change it.
+     *
+     * @param eTag the entity tag of the resource
+     * @param lastModified the time of the last change of the resource, in milliseconds, or -1 if unknown
+     * @return the ETag, Last-Modified and Cache-Control headers
+     */
+    public static HttpHeaders createHeaders(String eTag, long lastModified) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        if (lastModified >= 0 && lastModified / 1000 < System.currentTimeMillis() / 1000) {
+            headers.setLastModified(lastModified);
+        }
+        headers.setCacheControl(CacheControl.noCache().getHeaderValue());
+        return headers;
+    }
+
+    /**
+     * @return the ResponseEntity with status 304 (Not Modified) and the headers of {@link #createHeaders}
+     */
+    public static <X> ResponseEntity<X> notModified(String eTag, long lastModified) {
+        return new ResponseEntity<>(createHeaders(eTag, lastModified), HttpStatus.NOT_MODIFIED);
+    }
+
+    private static boolean matches(String header, String eTag, boolean strong) {
+        for (String tag : StringUtils.commaDelimitedListToStringArray(header)) {
+            tag = tag.trim();
+            if ("*".equals(tag)) {
+                return eTag != null;
+            }
+            if (tag.startsWith("W/")) {
+                if (strong) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package come.one.app.web.rest.util;
+
+/**
+ * How the total count of a paginated listing is computed, selected with the "count" request parameter.
+ */
+public enum CountMode {
+
+    /**
+     * Count all the matching rows with each request, and send it in the X-Total-Count header.
+     */
+    EXACT,
+
+    /**
+     * Don't count the matching rows: only the "next", "prev" and "first" links are sent.
+     */
+    NONE,
+
+    /**
+     * Send a cached, periodically refreshed estimate of the matching rows in the X-Total-Count header.
+     */
+    ESTIMATE;
+
+    /**
+     * @param value the value of the "count" request parameter, may be null
+     * @return the requested count mode, {@link #EXACT} if none is given
+     * @throws IllegalArgumentException if the value isn't a known count mode
+     */
+    public static CountMode fromParameter(String value) {
+        if (value == null || value.isEmpty()) {
+            return EXACT;
+        }
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown count mode: " + value);
+    }
+
+    /**
+     * @return the value of the "count" request parameter selecting this mode
+     */
+    public String toParameter() {
+        return name().toLowerCase();
+    }
+}
@@ -1,9 +1,14 @@
 package come.one.app.web.rest.util;
 
+import come.one.app.service.dto.KeysetSlice;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.Map;
+
 /**
  * Utility class for handling pagination.
  *
@@ -39,6 +44,59 @@ public final class PaginationUtil {
         return headers;
     }
 
+    /**
+     * Generate the headers of a page whose total is an estimate: the X-Total-Count-Estimated header tells the
+     * client that the total and the "last" link are approximate.
+     */
+    public static HttpHeaders generateEstimatedPaginationHttpHeaders(Page page, String baseUrl) {
+        HttpHeaders headers = generatePaginationHttpHeaders(page, baseUrl);
+        headers.add("X-Total-Count-Estimated", Boolean.TRUE.toString());
+        return headers;
+    }
+
+    /**
+     * Generate the Link header of a slice: only the "next", "prev" and "first" links can be given,
+     * as the total count isn't known.
+     */
+    public static HttpHeaders generateSliceHttpHeaders(Slice slice, String baseUrl) {
+        HttpHeaders headers = new HttpHeaders();
+        String link = "";
+        if (slice.hasNext()) {
+            link = "<" + generateUri(baseUrl, slice.getNumber() + 1, slice.getSize()) + ">; rel=\"next\",";
+        }
+        if (slice.hasPrevious()) {
+            link += "<" + generateUri(baseUrl, slice.getNumber() - 1, slice.getSize()) + ">; rel=\"prev\",";
+        }
+        link += "<" + generateUri(baseUrl, 0, slice.getSize()) + ">; rel=\"first\"";
+        headers.add(HttpHeaders.LINK, link);
+        return headers;
+    }
+
+    /**
+     * Generate the Link header of a keyset paginated listing: only the "next" and "first" links can be given,
+     * as there is neither a page number nor a total count.
+     * <p>
+     * The links keep the parameters of the request, e.g. its criteria and sort, replacing its "after" and "size".
+     *
+     * @param parameters the decoded parameters of the request, as given by {@code ServletRequest.getParameterMap()}
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(KeysetSlice<?> slice, String baseUrl, Map<String, String[]> parameters) {
+        HttpHeaders headers = new HttpHeaders();
+        String link = "";
+        if (slice.hasNext()) {
+            link = "<" + generateKeysetUri(baseUrl, parameters, slice.getNextCursor().encode(), slice.getSize()) + ">; rel=\"next\",";
+        }
+        link += "<" + generateKeysetUri(baseUrl, parameters, "", slice.getSize()) + ">; rel=\"first\"";
+        headers.add(HttpHeaders.LINK, link);
+        return headers;
+    }
+
+    private static String generateKeysetUri(String baseUrl, Map<String, String[]> parameters, String cursor, int size) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl);
+        parameters.forEach((name, values) -> builder.queryParam(name, (Object[]) values));
+        return builder.replaceQueryParam("after", cursor).replaceQueryParam("size", size).toUriString();
+    }
+
     private static String generateUri(String baseUrl, int page, int size) {
         return UriComponentsBuilder.fromUriString(baseUrl).queryParam("page", page).queryParam("size", size).toUriString();
     }
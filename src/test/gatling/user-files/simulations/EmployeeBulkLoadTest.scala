@@ -0,0 +1,103 @@
+import java.net.{HttpURLConnection, URL}
+import java.nio.charset.StandardCharsets
+
+import _root_.io.gatling.core.scenario.Simulation
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+
+import scala.concurrent.duration._
+
+/**
+ * Throughput comparison of the bulk save of employees with the single-row one, with a closed workload: each user
+ * creates its employees as fast as it gets the responses, either in one POST /api/employees/bulk per "items"
+ * employees, or with one POST /api/employees per employee.
+ *
+ * Run it once with "mode" set to "bulk", then to "single", against the application with the same
+ * "application.bulk.batch-size", and compare the employees created per second: the requests per second of the
+ * report, multiplied by "items" in the bulk mode. The employees created are named "bulk-load-test ..." and are
+ * not deleted, so use a database which can be thrown away, like the one seeded by the "loadtest" Spring profile.
+ *
+ * Settings, as system properties:
+ * - baseURL: the URL of the application, http://localhost:8080 by default
+ * - mode: "bulk" or "single", "bulk" by default
+ * - items: the number of employees of each bulk request, 500 by default
+ * - users: the number of concurrent users, 10 by default
+ * - duration: the duration each user sends requests, in seconds, 60 by default
+ */
+class EmployeeBulkLoadTest extends Simulation {
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://localhost:8080"""
+
+    val mode = Option(System.getProperty("mode")) getOrElse """bulk"""
+
+    val items = Integer.getInteger("items", 500).intValue
+
+    val users = Integer.getInteger("users", 10).intValue
+
+    val duration = Integer.getInteger("duration", 60).intValue
+
+    val httpConf = http
+        .baseURL(baseURL)
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.10; rv:33.0) Gecko/20100101 Firefox/33.0")
+        .silentResources
+
+    val credentials = """{"username":"admin", "password":"admin"}"""
+
+    var accessToken: String = _
+
+    before {
+        val connection = new URL(baseURL + "/api/authenticate").openConnection().asInstanceOf[HttpURLConnection]
+        connection.setRequestMethod("POST")
+        connection.setRequestProperty("Content-Type", "application/json")
+        connection.setDoOutput(true)
+        connection.getOutputStream.write(credentials.getBytes(StandardCharsets.UTF_8))
+        connection.getOutputStream.close()
+        if (connection.getResponseCode != 200) {
+            throw new IllegalStateException("Authentication failed with status " + connection.getResponseCode)
+        }
+        accessToken = connection.getHeaderField("Authorization")
+        connection.disconnect()
+    }
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    /**
+     * The same employees are sent by both modes, only the number of requests differs.
+     */
+    def employee(user: Long, index: Int): String =
+        s"""{"name":"bulk-load-test $user-$index","age":${18 + index % 50}}"""
+
+    val bulk = exec(session => session.set("body",
+            (0 until items).map(employee(session.userId, _)).mkString("\n")))
+        .exec(http("Bulk save employees")
+        .post("/api/employees/bulk")
+        .headers(headers_http_authenticated)
+        .header("Content-Type", "application/x-ndjson")
+        .body(StringBody("${body}"))
+        .check(status.is(200))
+        .check(jsonPath("$[?(@.status != 'CREATED')]").notExists))
+
+    val single = exec(session => session.set("body", employee(session.userId, 0)))
+        .exec(http("Save employee")
+        .post("/api/employees")
+        .headers(headers_http_authenticated)
+        .header("Content-Type", "application/json")
+        .body(StringBody("${body}"))
+        .check(status.is(201)))
+
+    val scn = scenario("Create employees, " + mode)
+        .exec(session => session.set("access_token", accessToken))
+        .during(duration seconds) {
+            if (mode == "single") single else bulk
+        }
+
+    setUp(
+        scn.inject(atOnceUsers(users))
+    ).protocols(httpConf)
+}
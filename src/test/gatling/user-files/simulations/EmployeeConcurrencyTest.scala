@@ -0,0 +1,95 @@
+import java.net.{HttpURLConnection, URL}
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.ThreadLocalRandom
+
+import _root_.io.gatling.core.scenario.Simulation
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+
+import scala.concurrent.duration._
+
+/**
+ * Throughput test of the Employee API at high concurrency, with a closed workload: a fixed number of users send
+ * their next request as soon as they get the previous response, so the requests per second measure how many
+ * requests the application serves concurrently.
+ *
+ * Run it against the application started with "application.threads.mode" set to "platform", then to "virtual",
+ * on the same database seeded by the "loadtest" Spring profile, and compare the requests per second and the
+ * response time percentiles of both reports. With the platform threads, the requests beyond the Undertow worker
+ * threads wait in its queue; with the virtual threads, they all wait on the database connection pool.
+ *
+ * Settings, as system properties:
+ * - baseURL: the URL of the application, http://localhost:8080 by default
+ * - users: the number of concurrent users, 1000 by default
+ * - rampUp: the duration over which the users are started, in seconds, 10 by default
+ * - duration: the duration each user sends requests, in seconds, 60 by default
+ */
+class EmployeeConcurrencyTest extends Simulation {
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://localhost:8080"""
+
+    val users = Integer.getInteger("users", 1000).intValue
+
+    val rampUp = Integer.getInteger("rampUp", 10).intValue
+
+    val duration = Integer.getInteger("duration", 60).intValue
+
+    val httpConf = http
+        .baseURL(baseURL)
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.10; rv:33.0) Gecko/20100101 Firefox/33.0")
+        .silentResources
+
+    val credentials = """{"username":"admin", "password":"admin"}"""
+
+    var accessToken: String = _
+
+    before {
+        val connection = new URL(baseURL + "/api/authenticate").openConnection().asInstanceOf[HttpURLConnection]
+        connection.setRequestMethod("POST")
+        connection.setRequestProperty("Content-Type", "application/json")
+        connection.setDoOutput(true)
+        connection.getOutputStream.write(credentials.getBytes(StandardCharsets.UTF_8))
+        connection.getOutputStream.close()
+        if (connection.getResponseCode != 200) {
+            throw new IllegalStateException("Authentication failed with status " + connection.getResponseCode)
+        }
+        accessToken = connection.getHeaderField("Authorization")
+        connection.disconnect()
+    }
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    /**
+     * A mix of short database reads: a page of employees in a random age range, and one of them by id.
+     */
+    val scn = scenario("Concurrent reads")
+        .exec(session => session.set("access_token", accessToken))
+        .during(duration seconds) {
+            exec(session => {
+                val random = ThreadLocalRandom.current()
+                val ageFrom = 18 + random.nextInt(40)
+                session.set("ageFrom", ageFrom).set("ageTo", ageFrom + 5 + random.nextInt(10)).set("page", random.nextInt(20))
+            })
+            .exec(http("Search employees")
+            .get("/api/employees?age.greaterOrEqualThan=${ageFrom}&age.lessThan=${ageTo}&page=${page}&size=20&sort=id,asc")
+            .headers(headers_http_authenticated)
+            .check(status.is(200))
+            .check(jsonPath("$[0].id").optional.saveAs("employeeId")))
+            .doIf(session => session.contains("employeeId")) {
+                exec(http("Get employee")
+                .get("/api/employees/${employeeId}")
+                .headers(headers_http_authenticated)
+                .check(status.in(200, 404)))
+            }
+        }
+
+    setUp(
+        scn.inject(rampUsers(users) over (rampUp seconds))
+    ).protocols(httpConf)
+}
@@ -0,0 +1,156 @@
+import java.net.{HttpURLConnection, URL}
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.ThreadLocalRandom
+
+import _root_.io.gatling.core.scenario.Simulation
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+
+import scala.concurrent.duration._
+
+/**
+ * Load test of the Employee API, with open workloads: each scenario gets new users at a fixed arrival rate,
+ * whatever the response times, so a slow endpoint shows up as latency instead of a lower request rate.
+ *
+ * The database should be seeded by the "loadtest" Spring profile. Settings, as system properties:
+ * - baseURL: the URL of the application, http://localhost:8080 by default
+ * - rate: the users per second of each scenario, 10 by default
+ * - loginRate: the users per second of the login scenario, 2 by default as it hashes a password
+ * - duration: the duration of the test in seconds, 60 by default
+ */
+class EmployeeLoadTest extends Simulation {
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://localhost:8080"""
+
+    val rate = java.lang.Double.parseDouble(System.getProperty("rate", "10"))
+
+    val loginRate = java.lang.Double.parseDouble(System.getProperty("loginRate", "2"))
+
+    val duration = Integer.getInteger("duration", 60).intValue
+
+    val httpConf = http
+        .baseURL(baseURL)
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .acceptLanguageHeader("fr,fr-fr;q=0.8,en-us;q=0.5,en;q=0.3")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.10; rv:33.0) Gecko/20100101 Firefox/33.0")
+        .silentResources
+
+    val headers_http = Map(
+        "Accept" -> """application/json"""
+    )
+
+    val headers_http_authentication = Map(
+        "Content-Type" -> """application/json""",
+        "Accept" -> """application/json"""
+    )
+
+    val credentials = """{"username":"admin", "password":"admin"}"""
+
+    /**
+     * Token shared by the scenarios other than the login one, so that they don't measure the password hashing.
+     */
+    var accessToken: String = _
+
+    before {
+        val connection = new URL(baseURL + "/api/authenticate").openConnection().asInstanceOf[HttpURLConnection]
+        connection.setRequestMethod("POST")
+        connection.setRequestProperty("Content-Type", "application/json")
+        connection.setDoOutput(true)
+        connection.getOutputStream.write(credentials.getBytes(StandardCharsets.UTF_8))
+        connection.getOutputStream.close()
+        if (connection.getResponseCode != 200) {
+            throw new IllegalStateException("Authentication failed with status " + connection.getResponseCode)
+        }
+        accessToken = connection.getHeaderField("Authorization")
+        connection.disconnect()
+    }
+
+    val authenticated = exec(session => session.set("access_token", accessToken))
+
+    val headers_http_authenticated = Map(
+        "Content-Type" -> """application/json""",
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    /**
+     * Search a random page of employees in a random age range, and keep their ids.
+     */
+    val search = exec(session => {
+        val random = ThreadLocalRandom.current()
+        val ageFrom = 18 + random.nextInt(40)
+        session.set("ageFrom", ageFrom).set("ageTo", ageFrom + 5 + random.nextInt(10)).set("page", random.nextInt(20))
+    })
+        .exec(http("Search employees")
+        .get("/api/employees?age.greaterOrEqualThan=${ageFrom}&age.lessThan=${ageTo}&page=${page}&size=20&sort=id,asc")
+        .headers(headers_http_authenticated)
+        .check(status.is(200))
+        .check(jsonPath("$[*].id").findAll.optional.saveAs("employeeIds"))
+        .check(jsonPath("$[*].department.id").findAll.optional.saveAs("departmentIds")))
+
+    val pickEmployee = exec(session => session("employeeIds").asOption[Seq[String]] match {
+        case Some(ids) if ids.nonEmpty => session.set("employeeId", ids(ThreadLocalRandom.current().nextInt(ids.size)))
+        case _ => session.set("employeeId", "1")
+    })
+
+    val pickDepartment = exec(session => session("departmentIds").asOption[Seq[String]] match {
+        case Some(ids) if ids.nonEmpty => session.set("departmentId", ids(ThreadLocalRandom.current().nextInt(ids.size)))
+        case _ => session.set("departmentId", "1")
+    })
+
+    val scnLogin = scenario("Login")
+        .exec(http("Authentication")
+        .post("/api/authenticate")
+        .headers(headers_http_authentication)
+        .body(StringBody(credentials)).asJSON
+        .check(status.is(200))
+        .check(header.get("Authorization").saveAs("access_token")))
+
+    val scnSearch = scenario("Search employees")
+        .exec(authenticated)
+        .exec(search)
+
+    val scnGet = scenario("Get employee")
+        .exec(authenticated)
+        .exec(search)
+        .exec(pickEmployee)
+        .exec(http("Get employee")
+        .get("/api/employees/${employeeId}")
+        .headers(headers_http_authenticated)
+        .check(status.in(200, 404)))
+
+    val scnWrite = scenario("Create and update employee")
+        .exec(authenticated)
+        .exec(search)
+        .exec(pickDepartment)
+        .exec(http("Create employee")
+        .post("/api/employees")
+        .headers(headers_http_authenticated)
+        .body(StringBody("""{"id":null, "name":"Load Test", "age":30, "birthday":"1987-06-15T00:00:00.000Z", "department":{"id":${departmentId}}}""")).asJSON
+        .check(status.is(201))
+        .check(jsonPath("$.id").saveAs("new_employee_id")))
+        .exec(http("Update employee")
+        .put("/api/employees")
+        .headers(headers_http_authenticated)
+        .body(StringBody("""{"id":${new_employee_id}, "name":"Load Test Updated", "age":31, "birthday":"1986-06-15T00:00:00.000Z", "department":{"id":${departmentId}}}""")).asJSON
+        .check(status.is(200)))
+
+    val scnExport = scenario("Export employees")
+        .exec(authenticated)
+        .exec(search)
+        .exec(pickDepartment)
+        .exec(http("Export employees")
+        .get("/api/employees/export?format=ndjson&departmentId.equals=${departmentId}")
+        .headers(headers_http_authenticated)
+        .check(status.is(200)))
+
+    setUp(
+        scnLogin.inject(constantUsersPerSec(loginRate) during (duration seconds)),
+        scnSearch.inject(constantUsersPerSec(rate) during (duration seconds)),
+        scnGet.inject(constantUsersPerSec(rate) during (duration seconds)),
+        scnWrite.inject(constantUsersPerSec(rate / 5) during (duration seconds)),
+        scnExport.inject(constantUsersPerSec(rate / 10) during (duration seconds))
+    ).protocols(httpConf)
+}
@@ -0,0 +1,132 @@
+package come.one.app;
+
+import come.one.app.config.Constants;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Startup time test: the application is started with the "fast-startup" profile, in a JVM of its own so it starts
+ * cold and doesn't share the database and MBeans of the other tests, and must answer GET /api/employees with a 200
+ * within the budget, in seconds, of the "startupBudgetSeconds" system property, 60 by default.
+ * <p>
+ * Its output is written to target/startup-time-test.log.
+ */
+public class StartupTimeIntTest {
+
+    private static final long BUDGET_SECONDS = Long.getLong("startupBudgetSeconds", 60);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Process process;
+
+    @After
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    @Test
+    public void assertThatFirstRequestSucceedsWithinBudget() throws Exception {
+        int port = freePort();
+        String baseUrl = "http://localhost:" + port;
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Dserver.port=" + port);
+        command.add("-Dspring.profiles.active=" + Constants.SPRING_PROFILE_FAST_STARTUP);
+        // as in the main configuration, which the test one replaces
+        command.add("-Dmanagement.context-path=/management");
+        command.add("-Dmanagement.security.roles=ADMIN");
+        command.add(TraningbackendApp.class.getName());
+
+        long start = System.nanoTime();
+        process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(new File("target", "startup-time-test.log"))
+            .start();
+        long deadline = start + TimeUnit.SECONDS.toNanos(BUDGET_SECONDS);
+        String token = null;
+        int status = 0;
+        while (status != 200 && System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                if (token == null) {
+                    token = authenticate(baseUrl);
+                }
+                status = get(baseUrl + "/api/employees", token).getResponseCode();
+            } catch (IOException e) {
+                // not listening yet
+            }
+            if (status != 200) {
+                Thread.sleep(100);
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (status != 200) {
+            fail("No 200 from /api/employees within " + BUDGET_SECONDS + " s, last status " + status +
+                ", see target/startup-time-test.log");
+        }
+        assertThat(elapsedMs).isLessThanOrEqualTo(TimeUnit.SECONDS.toMillis(BUDGET_SECONDS));
+
+        // the lazy beans of the profile aren't created by the requests above
+        HttpURLConnection connection = get(baseUrl + "/management/startup", token);
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        JsonNode report;
+        try (InputStream in = connection.getInputStream()) {
+            report = objectMapper.readTree(in);
+        }
+        assertThat(report.get("readyMs").asDouble()).isPositive();
+        List<String> beans = new ArrayList<>();
+        report.get("beans").forEach(bean -> beans.add(bean.get("name").asText()));
+        assertThat(beans).contains("employeeResource").doesNotContain("logsResource", "mailService");
+    }
+
+    private String authenticate(String baseUrl) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/api/authenticate").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write("{\"username\":\"admin\", \"password\":\"admin\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        return connection.getResponseCode() == 200 ? connection.getHeaderField("Authorization") : null;
+    }
+
+    private static HttpURLConnection get(String url, String token) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestProperty("Accept", "application/json");
+        if (token != null) {
+            connection.setRequestProperty("Authorization", token);
+        }
+        return connection;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
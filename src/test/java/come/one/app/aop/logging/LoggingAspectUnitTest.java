@@ -0,0 +1,117 @@
+package come.one.app.aop.logging;
+
+import come.one.app.domain.User;
+import come.one.app.service.mapper.UserMapper;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the LoggingAspect and LoggingAspectManager.
+ *
+ * @see LoggingAspect
+ * @see LoggingAspectManager
+ */
+public class LoggingAspectUnitTest {
+
+    private MetricRegistry metricRegistry;
+
+    private ch.qos.logback.classic.Logger aspectLogger;
+
+    private Level aspectLoggerLevel;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        aspectLogger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(LoggingAspect.class);
+        aspectLoggerLevel = aspectLogger.getLevel();
+    }
+
+    @After
+    public void tearDown() {
+        aspectLogger.setLevel(aspectLoggerLevel);
+    }
+
+    @Test
+    public void testProfileModeRecordsTimers() {
+        LoggingAspect loggingAspect = createLoggingAspect(LoggingAspectMode.PROFILE);
+        UserMapper userMapper = (UserMapper) createProxy(new DefaultPointcutAdvisor(LoggingAspect.pointcut(), loggingAspect));
+
+        userMapper.userToUserDTO(new User());
+        userMapper.userToUserDTO(new User());
+
+        assertThat(loggingAspect.isActive()).isTrue();
+        assertThat(metricRegistry.timer("aop.profile.come.one.app.service.mapper.UserMapper.userToUserDTO").getCount())
+            .isEqualTo(2);
+    }
+
+    @Test
+    public void testLogModeIsActiveAtDebugLevel() {
+        LoggingAspect loggingAspect = createLoggingAspect(LoggingAspectMode.LOG);
+
+        aspectLogger.setLevel(Level.DEBUG);
+        assertThat(loggingAspect.isActive()).isTrue();
+
+        aspectLogger.setLevel(Level.INFO);
+        assertThat(loggingAspect.isActive()).isFalse();
+    }
+
+    @Test
+    public void testManagerRemovesAndAddsTheAdvisor() {
+        LoggingAspect loggingAspect = createLoggingAspect(LoggingAspectMode.LOG);
+        Advisor advisor = new DefaultPointcutAdvisor(LoggingAspect.pointcut(), loggingAspect);
+        Advised proxy = (Advised) createProxy(advisor);
+        LoggingAspectManager loggingAspectManager = new LoggingAspectManager(loggingAspect, advisor, null);
+
+        assertThat(loggingAspectManager.apply(proxy, false)).isTrue();
+        assertThat(proxy.indexOf(advisor)).isEqualTo(-1);
+        assertThat(loggingAspectManager.apply(proxy, false)).isFalse();
+
+        assertThat(loggingAspectManager.apply(proxy, true)).isTrue();
+        assertThat(proxy.indexOf(advisor)).isEqualTo(0);
+    }
+
+    private LoggingAspect createLoggingAspect(LoggingAspectMode mode) {
+        return new LoggingAspect(new MockEnvironment(), new ObjectProvider<MetricRegistry>() {
+            @Override
+            public MetricRegistry getObject(Object... args) {
+                return metricRegistry;
+            }
+
+            @Override
+            public MetricRegistry getIfAvailable() {
+                return metricRegistry;
+            }
+
+            @Override
+            public MetricRegistry getIfUnique() {
+                return metricRegistry;
+            }
+
+            @Override
+            public MetricRegistry getObject() {
+                return metricRegistry;
+            }
+        }, mode);
+    }
+
+    private Object createProxy(Advisor advisor) {
+        ProxyFactory proxyFactory = new ProxyFactory(new UserMapper());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,150 @@
+package come.one.app.config;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test class for the AdaptiveThreadPoolTaskExecutor, resized by hand rather than by its resizer thread.
+ *
+ * @see AdaptiveThreadPoolTaskExecutor
+ */
+public class AdaptiveThreadPoolTaskExecutorUnitTest {
+
+    private MetricRegistry metricRegistry;
+
+    private ApplicationProperties.Async properties;
+
+    private AdaptiveThreadPoolTaskExecutor executor;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        properties = new ApplicationProperties.Async();
+        properties.setTargetQueueLatencyMs(10);
+        // never run during the test
+        properties.setResizeIntervalMs(TimeUnit.HOURS.toMillis(1));
+    }
+
+    @After
+    public void cleanup() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void assertThatPoolGrowsOnQueueLatencyBeforeTheQueueIsFull() throws Exception {
+        executor = executor(1, 4, 100);
+        executor.execute(this::block);
+        Future<?> queued = executor.submit(() -> { });
+        Thread.sleep(20);
+
+        executor.resize();
+
+        assertThat(executor.getThreadPoolExecutor().getCorePoolSize()).isEqualTo(2);
+        assertThat(executor.getCorePoolSize()).isEqualTo(2);
+        queued.get(1, TimeUnit.SECONDS);
+        assertThat(metricRegistry.timer(metric("wait")).getCount()).isEqualTo(2);
+        assertThat(metricRegistry.timer(metric("wait")).getSnapshot().getMax())
+            .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void assertThatPoolDoesNotGrowBelowTargetLatency() {
+        properties.setTargetQueueLatencyMs(TimeUnit.HOURS.toMillis(1));
+        executor = executor(1, 4, 100);
+        executor.execute(this::block);
+        executor.execute(() -> { });
+
+        executor.resize();
+
+        assertThat(executor.getThreadPoolExecutor().getCorePoolSize()).isEqualTo(1);
+        assertThat(gauge("queue.size")).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatPoolShrinksBackWhenIdle() throws Exception {
+        executor = executor(1, 4, 100);
+        executor.execute(this::block);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(this::block);
+        }
+        Thread.sleep(20);
+        // doubling at most
+        executor.resize();
+        assertThat(gauge("core.size")).isEqualTo(2);
+        executor.resize();
+        assertThat(gauge("core.size")).isEqualTo(4);
+
+        release.countDown();
+        waitForIdle();
+        assertThat(metricRegistry.timer(metric("run")).getCount()).isEqualTo(4);
+        executor.resize();
+        executor.resize();
+        assertThat(gauge("core.size")).isEqualTo(2);
+        executor.resize();
+        // not below the configured core size
+        executor.resize();
+
+        assertThat(gauge("core.size")).isEqualTo(1);
+        assertThat(executor.getCorePoolSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatRejectionsAreCounted() {
+        executor = executor(1, 1, 1);
+        executor.execute(this::block);
+        executor.execute(() -> { });
+        try {
+            executor.execute(() -> { });
+            fail("TaskRejectedException expected");
+        } catch (TaskRejectedException e) {
+            assertThat(metricRegistry.meter(metric("rejected")).getCount()).isEqualTo(1);
+        }
+    }
+
+    private AdaptiveThreadPoolTaskExecutor executor(int corePoolSize, int maxPoolSize, int queueCapacity) {
+        AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor("test", properties, metricRegistry);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("test-executor-");
+        executor.afterPropertiesSet();
+        return executor;
+    }
+
+    private void block() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitForIdle() throws InterruptedException {
+        for (int i = 0; i < 100 && (executor.getActiveCount() > 0 || gauge("queue.size") > 0); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private int gauge(String name) {
+        return (Integer) metricRegistry.getGauges().get(metric(name)).getValue();
+    }
+
+    private static String metric(String name) {
+        return MetricRegistry.name(AdaptiveThreadPoolTaskExecutor.class, "test", name);
+    }
+}
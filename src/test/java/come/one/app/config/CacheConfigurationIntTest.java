@@ -0,0 +1,69 @@
+package come.one.app.config;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.domain.Department;
+import come.one.app.repository.DepartmentRepository;
+
+import com.codahale.metrics.MetricRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the Hibernate second-level cache, turned on as in the dev and prod profiles, while the other tests
+ * run without it.
+ * <p>
+ * Not transactional, as each read must use its own persistence context to reach the second-level cache.
+ *
+ * @see CacheConfiguration
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class, properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.use_minimal_puts=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=come.one.app.config.NoDefaultJCacheRegionFactory"
+})
+public class CacheConfigurationIntTest {
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MetricRegistry metricRegistry;
+
+    @Test
+    public void assertThatDepartmentIsReadFromTheSecondLevelCache() {
+        Department department = departmentRepository.save(new Department().name("cached").area(1L));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        // the caches of the JVM are shared with the other application contexts of the tests
+        long hits = (Long) metricRegistry.getGauges().get(MetricRegistry.name("hibernate.cache", Department.class.getName(), "hits")).getValue();
+        try {
+            // the first read loads it from the database and puts it in the cache, the second one gets it from there
+            assertThat(departmentRepository.findOne(department.getId()).getName()).isEqualTo("cached");
+            assertThat(departmentRepository.findOne(department.getId()).getName()).isEqualTo("cached");
+
+            SecondLevelCacheStatistics region = statistics.getSecondLevelCacheStatistics(Department.class.getName());
+            assertThat(region.getMissCount()).isEqualTo(1);
+            assertThat(region.getPutCount()).isEqualTo(1);
+            assertThat(region.getHitCount()).isEqualTo(1);
+            // from the JCache statistics
+            assertThat(metricRegistry.getGauges().get(MetricRegistry.name("hibernate.cache", Department.class.getName(), "hits"))
+                .getValue()).isEqualTo(hits + 1);
+        } finally {
+            departmentRepository.delete(department.getId());
+        }
+    }
+}
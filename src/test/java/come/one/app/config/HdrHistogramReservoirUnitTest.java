@@ -0,0 +1,90 @@
+package come.one.app.config;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Test class for the HdrHistogramReservoir and HdrHistogramMetricRegistry.
+ *
+ * @see HdrHistogramReservoir
+ * @see HdrHistogramMetricRegistry
+ */
+public class HdrHistogramReservoirUnitTest {
+
+    private ManualClock clock;
+
+    private HdrHistogramReservoir reservoir;
+
+    @Before
+    public void setup() {
+        clock = new ManualClock();
+        reservoir = new HdrHistogramReservoir(60, TimeUnit.SECONDS, clock);
+    }
+
+    @Test
+    public void testSnapshotHoldsTheLastCompleteWindow() {
+        for (long value = 1; value <= 1000; value++) {
+            reservoir.update(value);
+        }
+        assertThat(reservoir.getSnapshot().size()).isEqualTo(0);
+
+        clock.advance(60, TimeUnit.SECONDS);
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.size()).isEqualTo(1000);
+        assertThat(snapshot.getMin()).isEqualTo(1);
+        assertThat(snapshot.getMax()).isCloseTo(1000, within(10L));
+        assertThat(snapshot.getMedian()).isCloseTo(500, within(5.0));
+        assertThat(snapshot.get99thPercentile()).isCloseTo(990, within(10.0));
+        assertThat(snapshot.get999thPercentile()).isCloseTo(999, within(10.0));
+    }
+
+    @Test
+    public void testWindowIsReset() {
+        reservoir.update(1000);
+        clock.advance(60, TimeUnit.SECONDS);
+        assertThat(reservoir.getSnapshot().size()).isEqualTo(1);
+
+        reservoir.update(10);
+        reservoir.update(20);
+        clock.advance(60, TimeUnit.SECONDS);
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.getMax()).isEqualTo(20);
+    }
+
+    @Test
+    public void testRegistryCreatesHdrHistogramTimers() {
+        HdrHistogramMetricRegistry metricRegistry = new HdrHistogramMetricRegistry(60);
+
+        Timer timer = metricRegistry.timer("test");
+
+        assertThat(metricRegistry.timer("test")).isSameAs(timer);
+        assertThat(metricRegistry.getTimers()).containsKey("test");
+        timer.update(5, TimeUnit.MILLISECONDS);
+        assertThat(timer.getCount()).isEqualTo(1);
+    }
+
+    private static class ManualClock extends Clock {
+
+        private long tick;
+
+        void advance(long duration, TimeUnit unit) {
+            tick += unit.toNanos(duration);
+        }
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package come.one.app.config;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test class for the VirtualThreads, whose executors are only tested on Java 21 or later.
+ *
+ * @see VirtualThreads
+ */
+public class VirtualThreadsUnitTest {
+
+    @Test
+    public void assertThatPlatformModeIsNotEnabled() {
+        ApplicationProperties.Threads threads = new ApplicationProperties.Threads();
+        threads.setMode(ThreadMode.PLATFORM);
+
+        assertThat(VirtualThreads.isEnabled(threads)).isFalse();
+    }
+
+    @Test
+    public void assertThatVirtualModeIsEnabledWhenSupported() {
+        ApplicationProperties.Threads threads = new ApplicationProperties.Threads();
+        threads.setMode(ThreadMode.VIRTUAL);
+        threads.setTracePinnedThreads(false);
+
+        assertThat(VirtualThreads.isEnabled(threads)).isEqualTo(VirtualThreads.isSupported());
+    }
+
+    @Test
+    public void assertThatPlatformThreadsAreNotVirtual() {
+        assertThat(VirtualThreads.isVirtual(Thread.currentThread())).isFalse();
+    }
+
+    @Test
+    public void assertThatTasksRunOnNamedVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor("test-virtual-");
+        try {
+            Future<Thread> first = executor.submit(Thread::currentThread);
+            Future<Thread> second = executor.submit(Thread::currentThread);
+
+            assertThat(VirtualThreads.isVirtual(first.get())).isTrue();
+            assertThat(first.get().getName()).startsWith("test-virtual-");
+            assertThat(second.get().getName()).isNotEqualTo(first.get().getName());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
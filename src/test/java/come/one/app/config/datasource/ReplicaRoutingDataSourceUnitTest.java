@@ -0,0 +1,148 @@
+package come.one.app.config.datasource;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ReplicaRoutingDataSource, with in-memory H2 databases as primary and replicas.
+ *
+ * @see ReplicaRoutingDataSource
+ */
+public class ReplicaRoutingDataSourceUnitTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary";
+
+    private static final String REPLICA_1_URL = "jdbc:h2:mem:replica1";
+
+    private static final String REPLICA_2_URL = "jdbc:h2:mem:replica2";
+
+    private static final String URL_SETTINGS = ";DB_CLOSE_DELAY=-1";
+
+    private MetricRegistry metricRegistry;
+
+    private SwitchableDataSource replica1;
+
+    private SwitchableDataSource replica2;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        replica1 = new SwitchableDataSource(REPLICA_1_URL);
+        replica2 = new SwitchableDataSource(REPLICA_2_URL);
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void testReadWriteUsesPrimary() throws SQLException {
+        ReplicaRoutingDataSource dataSource = createDataSource(ReplicaLoadBalancing.ROUND_ROBIN);
+
+        assertThat(urlOf(dataSource)).isEqualTo(PRIMARY_URL);
+        assertThat(urlOf(dataSource)).isEqualTo(PRIMARY_URL);
+    }
+
+    @Test
+    public void testReadOnlyRoundRobin() throws SQLException {
+        ReplicaRoutingDataSource dataSource = createDataSource(ReplicaLoadBalancing.ROUND_ROBIN);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        String first = urlOf(dataSource);
+        String second = urlOf(dataSource);
+        String third = urlOf(dataSource);
+
+        assertThat(Arrays.asList(first, second)).containsOnly(REPLICA_1_URL, REPLICA_2_URL);
+        assertThat(first).isNotEqualTo(second);
+        assertThat(third).isEqualTo(first);
+    }
+
+    @Test
+    public void testReadOnlyLeastConnections() throws SQLException {
+        ReplicaRoutingDataSource dataSource = createDataSource(ReplicaLoadBalancing.LEAST_CONNECTIONS);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (Connection first = dataSource.getConnection()) {
+            String firstUrl = withoutSettings(first.getMetaData().getURL());
+            String otherUrl = REPLICA_1_URL.equals(firstUrl) ? REPLICA_2_URL : REPLICA_1_URL;
+            assertThat(urlOf(dataSource)).isEqualTo(otherUrl);
+            assertThat(urlOf(dataSource)).isEqualTo(otherUrl);
+        }
+    }
+
+    @Test
+    public void testFallbackToPrimaryWhenReplicasFail() throws SQLException {
+        ReplicaRoutingDataSource dataSource = createDataSource(ReplicaLoadBalancing.ROUND_ROBIN);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        replica1.down = true;
+        replica2.down = true;
+
+        assertThat(urlOf(dataSource)).isEqualTo(PRIMARY_URL);
+        assertThat(metricRegistry.counter(MetricRegistry.name(ReplicaRoutingDataSource.class, "fallbacks")).getCount())
+            .isEqualTo(1);
+
+        replica2.down = false;
+        // left out until checked
+        assertThat(urlOf(dataSource)).isEqualTo(PRIMARY_URL);
+
+        dataSource.checkReplicas();
+        assertThat(urlOf(dataSource)).isEqualTo(REPLICA_2_URL);
+        assertThat(urlOf(dataSource)).isEqualTo(REPLICA_2_URL);
+    }
+
+    private ReplicaRoutingDataSource createDataSource(ReplicaLoadBalancing loadBalancing) {
+        return new ReplicaRoutingDataSource(new DriverManagerDataSource(PRIMARY_URL + URL_SETTINGS), Arrays.asList(replica1, replica2),
+            loadBalancing, 5, metricRegistry);
+    }
+
+    private static String urlOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return withoutSettings(connection.getMetaData().getURL());
+        }
+    }
+
+    private static String withoutSettings(String url) {
+        int settings = url.indexOf(';');
+        return settings < 0 ? url : url.substring(0, settings);
+    }
+
+    /**
+     * DataSource failing while it is down.
+     */
+    private static class SwitchableDataSource extends AbstractDataSource {
+
+        private final DataSource delegate;
+
+        private volatile boolean down;
+
+        SwitchableDataSource(String url) {
+            this.delegate = new DriverManagerDataSource(url + URL_SETTINGS);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Database is down");
+            }
+            return delegate.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package come.one.app.config.liquibase;
+
+import come.one.app.TraningbackendApp;
+
+import liquibase.exception.LiquibaseException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test class for the FastPathSpringLiquibase, on the schema already updated by the application.
+ * <p>
+ * A skipped update is told apart from a full one by a missing changelog, which only fails the full update.
+ *
+ * @see FastPathSpringLiquibase
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class)
+public class FastPathSpringLiquibaseIntTest {
+
+    private static final String CHANGELOG = "classpath:config/liquibase/master.xml";
+
+    private static final String MISSING_CHANGELOG = "classpath:config/liquibase/missing.xml";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("delete from jhi_schema_marker");
+    }
+
+    @Test
+    public void assertThatUpdateWritesMarker() throws LiquibaseException {
+        liquibase("hash", "test", CHANGELOG).afterPropertiesSet();
+
+        Map<String, Object> marker = jdbcTemplate.queryForMap("select * from jhi_schema_marker");
+        assertThat(marker.get("id")).isEqualTo("liquibase");
+        assertThat(marker.get("changelog_hash")).isEqualTo("hash");
+        assertThat(marker.get("contexts")).isEqualTo("test");
+    }
+
+    @Test
+    public void assertThatUpdateIsSkippedWhenMarkerMatches() throws LiquibaseException {
+        liquibase("hash", "test", CHANGELOG).afterPropertiesSet();
+
+        liquibase("hash", "test", MISSING_CHANGELOG).afterPropertiesSet();
+    }
+
+    @Test
+    public void assertThatUpdateRunsWhenChangelogChanged() throws LiquibaseException {
+        liquibase("hash", "test", CHANGELOG).afterPropertiesSet();
+
+        assertThatUpdateRuns(liquibase("other hash", "test", MISSING_CHANGELOG));
+    }
+
+    @Test
+    public void assertThatUpdateRunsWhenContextsChanged() throws LiquibaseException {
+        liquibase("hash", "test", CHANGELOG).afterPropertiesSet();
+
+        assertThatUpdateRuns(liquibase("hash", "test,other", MISSING_CHANGELOG));
+    }
+
+    @Test
+    public void assertThatUpdateRunsWithoutMarker() {
+        assertThatUpdateRuns(liquibase("hash", "test", MISSING_CHANGELOG));
+    }
+
+    @Test
+    public void assertThatUpdateRunsWithoutHash() throws LiquibaseException {
+        liquibase(null, "test", CHANGELOG).afterPropertiesSet();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from jhi_schema_marker", Integer.class)).isZero();
+        assertThatUpdateRuns(liquibase(null, "test", MISSING_CHANGELOG));
+    }
+
+    @Test
+    public void assertThatChangelogHashIsTheSameInDirectoryAndJar() throws IOException {
+        Path directory = Files.createTempDirectory("changelog");
+        try {
+            Path changelog = Files.createDirectories(directory.resolve("classes/config/liquibase/changelog"));
+            Files.write(changelog.getParent().resolve("master.xml"), "master".getBytes(StandardCharsets.UTF_8));
+            Files.write(changelog.resolve("changeset.xml"), "changeset".getBytes(StandardCharsets.UTF_8));
+            Path jar = directory.resolve("app.jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                for (String entry : new String[] {"config/", "config/liquibase/", "config/liquibase/changelog/"}) {
+                    out.putNextEntry(new JarEntry(entry));
+                    out.closeEntry();
+                }
+                for (String entry : new String[] {"config/liquibase/master.xml", "config/liquibase/changelog/changeset.xml"}) {
+                    out.putNextEntry(new JarEntry(entry));
+                    out.write(Files.readAllBytes(directory.resolve("classes").resolve(entry)));
+                    out.closeEntry();
+                }
+            }
+
+            String hash = computeChangelogHash(directory.resolve("classes"));
+            assertThat(hash).isNotNull();
+            assertThat(computeChangelogHash(jar)).isEqualTo(hash);
+
+            Files.write(changelog.resolve("changeset.xml"), "edited".getBytes(StandardCharsets.UTF_8));
+            assertThat(computeChangelogHash(directory.resolve("classes"))).isNotEqualTo(hash);
+        } finally {
+            FileSystemUtils.deleteRecursively(directory.toFile());
+        }
+    }
+
+    private static String computeChangelogHash(Path classpath) throws IOException {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classpath.toUri().toURL()}, null)) {
+            return FastPathSpringLiquibase.computeChangelogHash(classLoader);
+        }
+    }
+
+    private FastPathSpringLiquibase liquibase(String changelogHash, String contexts, String changelog) {
+        FastPathSpringLiquibase liquibase = new FastPathSpringLiquibase(new SyncTaskExecutor(), env, changelogHash);
+        liquibase.setResourceLoader(resourceLoader);
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(changelog);
+        liquibase.setContexts(contexts);
+        return liquibase;
+    }
+
+    private static void assertThatUpdateRuns(FastPathSpringLiquibase liquibase) {
+        try {
+            liquibase.afterPropertiesSet();
+            fail("The update should have run, and failed on the missing changelog");
+        } catch (LiquibaseException e) {
+            assertThat(e).hasMessageContaining("missing.xml");
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package come.one.app.repository;
 
 import come.one.app.TraningbackendApp;
+import come.one.app.config.ApplicationProperties;
 import come.one.app.config.Constants;
 import come.one.app.config.audit.AuditEventConverter;
 import come.one.app.domain.PersistentAuditEvent;
+import com.codahale.metrics.MetricRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -14,6 +16,7 @@ import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.servlet.http.HttpSession;
@@ -42,6 +45,16 @@ public class CustomAuditEventRepositoryIntTest {
     @Autowired
     private AuditEventConverter auditEventConverter;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private PersistentAuditEventWriter persistentAuditEventWriter;
+
+    private MetricRegistry metricRegistry;
+
     private CustomAuditEventRepository customAuditEventRepository;
 
     private PersistentAuditEvent testUserEvent;
@@ -52,7 +65,12 @@ public class CustomAuditEventRepositoryIntTest {
 
     @Before
     public void setup() {
-        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter);
+        // not started: the events are written by flush(), in the test transaction
+        metricRegistry = new MetricRegistry();
+        persistentAuditEventWriter = new PersistentAuditEventWriter(persistenceAuditEventRepository, transactionManager,
+            applicationProperties, metricRegistry);
+        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter,
+            persistentAuditEventWriter);
         persistenceAuditEventRepository.deleteAll();
         Instant oneHourAgo = Instant.now().minusSeconds(3600);
 
@@ -160,6 +178,7 @@ public class CustomAuditEventRepositoryIntTest {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        persistentAuditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -180,6 +199,7 @@ public class CustomAuditEventRepositoryIntTest {
         data.put("test-key", largeData);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        persistentAuditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -203,6 +223,7 @@ public class CustomAuditEventRepositoryIntTest {
         data.put("test-key", details);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        persistentAuditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -216,6 +237,7 @@ public class CustomAuditEventRepositoryIntTest {
         data.put("test-key", null);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        persistentAuditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -228,6 +250,7 @@ public class CustomAuditEventRepositoryIntTest {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent(Constants.ANONYMOUS_USER, "test-type", data);
         customAuditEventRepository.add(event);
+        persistentAuditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(0);
     }
@@ -238,8 +261,42 @@ public class CustomAuditEventRepositoryIntTest {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent("test-user", "AUTHORIZATION_FAILURE", data);
         customAuditEventRepository.add(event);
+        persistentAuditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(0);
     }
 
+    @Test
+    public void addAuditEventIsWrittenOnFlush() {
+        AuditEvent event = new AuditEvent("test-user", "test-type", new HashMap<>());
+        customAuditEventRepository.add(event);
+        assertThat(persistenceAuditEventRepository.findAll()).isEmpty();
+
+        persistentAuditEventWriter.flush();
+        assertThat(persistenceAuditEventRepository.findAll()).hasSize(1);
+        assertThat(metricRegistry.counter(MetricRegistry.name(PersistentAuditEventWriter.class, "written")).getCount())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void addAuditEventDroppedWhenQueueIsFull() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getAudit().setQueueCapacity(1);
+        // the gauges of the writer of the setup are already registered in the other registry
+        metricRegistry = new MetricRegistry();
+        persistentAuditEventWriter = new PersistentAuditEventWriter(persistenceAuditEventRepository, transactionManager,
+            properties, metricRegistry);
+        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter,
+            persistentAuditEventWriter);
+
+        customAuditEventRepository.add(new AuditEvent("test-user", "test-type", new HashMap<>()));
+        customAuditEventRepository.add(new AuditEvent("other-test-user", "test-type", new HashMap<>()));
+        persistentAuditEventWriter.flush();
+
+        List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
+        assertThat(persistentAuditEvents).hasSize(1);
+        assertThat(persistentAuditEvents.get(0).getPrincipal()).isEqualTo("test-user");
+        assertThat(metricRegistry.counter(MetricRegistry.name(PersistentAuditEventWriter.class, "dropped")).getCount())
+            .isEqualTo(1);
+    }
 }
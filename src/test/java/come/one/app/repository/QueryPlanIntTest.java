@@ -0,0 +1,201 @@
+package come.one.app.repository;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.service.DepartmentQueryService;
+import come.one.app.service.EmployeeQueryService;
+import come.one.app.service.dto.DepartmentCriteria;
+import come.one.app.service.dto.EmployeeCriteria;
+
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import io.github.jhipster.service.filter.ZonedDateTimeFilter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plan regression test of the criteria filters: the listing query of each filter shape used by the clients
+ * is explained by the database, and none of its tables may be read by a full scan.
+ * <p>
+ * The plans are read from H2, and from MySQL when the test datasource points to it, which should then hold
+ * representative data, such as the one of the "loadtest" profile, as MySQL scans the small tables.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class)
+public class QueryPlanIntTest {
+
+    /**
+     * The index comments of an H2 plan: "PUBLIC.EMPLOYEE.tableScan" for a full scan, or the index name followed
+     * by the conditions it looks up, without which the whole index is scanned.
+     */
+    private static final Pattern H2_INDEX = Pattern.compile("/\\*\\s*(\\w+\\.\\w+)(\\.tableScan)?(:[^*]*)?\\s*\\*/");
+
+    private static final Pageable PAGE = new PageRequest(0, 20, new Sort("id"));
+
+    private static final ZonedDateTime FROM = ZonedDateTime.of(1980, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final ZonedDateTime TO = ZonedDateTime.of(1990, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private EmployeeQueryService employeeQueryService;
+
+    @Autowired
+    private DepartmentQueryService departmentQueryService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void assertThatEmployeeFiltersUseIndexes() throws SQLException {
+        assertNoFullScan("id.equals", employees(criteria -> criteria.setId(longEquals(1L))), 1L);
+        assertNoFullScan("name.equals", employees(criteria -> criteria.setName(stringEquals("Smith"))), "Smith");
+        assertNoFullScan("age.equals", employees(criteria -> criteria.setAge(ageEquals(30))), 30);
+        assertNoFullScan("age range", employees(criteria -> criteria.setAge(ageRange(30, 40))), 30, 40);
+        assertNoFullScan("birthday range", employees(criteria -> criteria.setBirthday(birthdayRange())),
+            FROM, TO);
+        assertNoFullScan("departmentId.equals", employees(criteria -> criteria.setDepartmentId(longEquals(1L))), 1L);
+        assertNoFullScan("departmentId.equals and age range", employees(criteria -> {
+            criteria.setAge(ageRange(30, 40));
+            criteria.setDepartmentId(longEquals(1L));
+        }), 30, 40, 1L);
+    }
+
+    @Test
+    public void assertThatDepartmentFiltersUseIndexes() throws SQLException {
+        assertNoFullScan("id.equals", departments(criteria -> criteria.setId(longEquals(1L))), 1L);
+        assertNoFullScan("name.equals", departments(criteria -> criteria.setName(stringEquals("Sales"))), "Sales");
+        assertNoFullScan("area range", departments(criteria -> {
+            LongFilter area = new LongFilter();
+            area.setGreaterOrEqualThan(100L);
+            area.setLessThan(300L);
+            criteria.setArea(area);
+        }), 100L, 300L);
+        assertNoFullScan("employeeId.equals", departments(criteria -> criteria.setEmployeeId(longEquals(1L))), 1L);
+    }
+
+    private String employees(Consumer<EmployeeCriteria> filters) {
+        EmployeeCriteria criteria = new EmployeeCriteria();
+        filters.accept(criteria);
+        return singleStatement(RecordingStatementInspector.record(() -> employeeQueryService.findSliceByCriteria(criteria, PAGE)));
+    }
+
+    private String departments(Consumer<DepartmentCriteria> filters) {
+        DepartmentCriteria criteria = new DepartmentCriteria();
+        filters.accept(criteria);
+        return singleStatement(RecordingStatementInspector.record(() -> departmentQueryService.findSliceByCriteria(criteria, PAGE)));
+    }
+
+    private static String singleStatement(List<String> statements) {
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+
+    /**
+     * Explain a query, the parameters of its filters being bound to the given values, in order, and the following
+     * ones, of the limit, to the page size.
+     */
+    private void assertNoFullScan(String shape, String sql, Object... filterValues) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = (int) sql.chars().filter(c -> c == '?').count();
+            for (int i = 0; i < parameters; i++) {
+                Object value = i < filterValues.length ? filterValues[i] : PAGE.getPageSize() + 1;
+                if (value instanceof ZonedDateTime) {
+                    value = Timestamp.from(((ZonedDateTime) value).toInstant());
+                }
+                statement.setObject(i + 1, value);
+            }
+            List<String> fullScans = new ArrayList<>();
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+                while (resultSet.next()) {
+                    if (mysql) {
+                        readMySqlPlan(resultSet, plan, fullScans);
+                    } else {
+                        readH2Plan(resultSet, plan, fullScans);
+                    }
+                }
+            }
+            assertThat(fullScans).as("Full scans of the \"%s\" filter in the plan %s", shape, plan).isEmpty();
+        }
+    }
+
+    private static void readH2Plan(ResultSet resultSet, StringBuilder plan, List<String> fullScans) throws SQLException {
+        String text = resultSet.getString(1);
+        plan.append(text);
+        Matcher matcher = H2_INDEX.matcher(text);
+        while (matcher.find()) {
+            if (matcher.group(2) != null || matcher.group(3) == null) {
+                fullScans.add(matcher.group(1));
+            }
+        }
+    }
+
+    /**
+     * A MySQL plan has a row per table, whose access type is ALL for a full scan of the table, and index for a
+     * full scan of an index.
+     */
+    private static void readMySqlPlan(ResultSet resultSet, StringBuilder plan, List<String> fullScans) throws SQLException {
+        String table = resultSet.getString("table");
+        String type = resultSet.getString("type");
+        plan.append(String.format("%n%s: %s %s", table, type, resultSet.getString("key")));
+        if ("ALL".equals(type) || "index".equals(type)) {
+            fullScans.add(table);
+        }
+    }
+
+    private static LongFilter longEquals(Long value) {
+        LongFilter filter = new LongFilter();
+        filter.setEquals(value);
+        return filter;
+    }
+
+    private static StringFilter stringEquals(String value) {
+        StringFilter filter = new StringFilter();
+        filter.setEquals(value);
+        return filter;
+    }
+
+    private static IntegerFilter ageEquals(Integer value) {
+        IntegerFilter filter = new IntegerFilter();
+        filter.setEquals(value);
+        return filter;
+    }
+
+    private static IntegerFilter ageRange(Integer from, Integer to) {
+        IntegerFilter filter = new IntegerFilter();
+        filter.setGreaterOrEqualThan(from);
+        filter.setLessThan(to);
+        return filter;
+    }
+
+    private static ZonedDateTimeFilter birthdayRange() {
+        ZonedDateTimeFilter filter = new ZonedDateTimeFilter();
+        filter.setGreaterOrEqualThan(FROM);
+        filter.setLessThan(TO);
+        return filter;
+    }
+}
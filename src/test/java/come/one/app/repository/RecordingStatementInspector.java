@@ -0,0 +1,42 @@
+package come.one.app.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Hibernate {@link StatementInspector} keeping the SQL statements run by the current thread while it records,
+ * so a test can look at the SQL generated from its queries.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Run an action, and return the SQL statements it ran.
+     *
+     * @param action the action to run on the current thread
+     * @return the SQL statements, in the order they were prepared
+     */
+    public static List<String> record(Supplier<?> action) {
+        List<String> recorded = new ArrayList<>();
+        RECORDED.set(recorded);
+        try {
+            action.get();
+        } finally {
+            RECORDED.remove();
+        }
+        return recorded;
+    }
+}
@@ -0,0 +1,123 @@
+package come.one.app.security;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for the BoundedPasswordEncoder.
+ *
+ * @see BoundedPasswordEncoder
+ */
+public class BoundedPasswordEncoderUnitTest {
+
+    private MetricRegistry metricRegistry;
+
+    private ExecutorService callers;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void testEncodeAndMatches() {
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 1, metricRegistry);
+        try {
+            String encoded = passwordEncoder.encode("password");
+
+            assertThat(passwordEncoder.matches("password", encoded)).isTrue();
+            assertThat(passwordEncoder.matches("wrong", encoded)).isFalse();
+            assertThat(metricRegistry.timer(MetricRegistry.name(BoundedPasswordEncoder.class, "encode")).getCount()).isEqualTo(1);
+            assertThat(metricRegistry.timer(MetricRegistry.name(BoundedPasswordEncoder.class, "matches")).getCount()).isEqualTo(2);
+        } finally {
+            passwordEncoder.shutdown();
+        }
+    }
+
+    @Test
+    public void testQueueCapacityIsBoundedByRequestThreads() {
+        // 16 workers: 8 can wait for a hash, 2 of them hashing
+        assertThat(BoundedPasswordEncoder.boundQueueCapacity(100, 2, 16)).isEqualTo(6);
+        assertThat(BoundedPasswordEncoder.boundQueueCapacity(4, 2, 16)).isEqualTo(4);
+        assertThat(BoundedPasswordEncoder.boundQueueCapacity(100, 16, 16)).isZero();
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(started, release),
+            1, 1, 5, metricRegistry);
+        try {
+            // one hash running, one waiting in the queue
+            Future<String> running = callers.submit(() -> passwordEncoder.encode("first"));
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<String> queued = callers.submit(() -> passwordEncoder.encode("second"));
+            while (metricRegistry.getGauges().get(MetricRegistry.name(BoundedPasswordEncoder.class, "queue", "size")).getValue().equals(0)) {
+                Thread.sleep(10);
+            }
+
+            try {
+                passwordEncoder.encode("third");
+                fail("PasswordEncoderBusyException expected");
+            } catch (PasswordEncoderBusyException e) {
+                assertThat(e.getRetryAfterSeconds()).isEqualTo(5);
+            }
+            assertThat(metricRegistry.counter(MetricRegistry.name(BoundedPasswordEncoder.class, "rejections")).getCount()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo("first");
+            assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo("second");
+        } finally {
+            release.countDown();
+            passwordEncoder.shutdown();
+        }
+    }
+
+    private static class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch release;
+
+        BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package come.one.app.security.jwt;
 
+import come.one.app.config.ApplicationProperties;
 import come.one.app.security.AuthoritiesConstants;
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import com.codahale.metrics.MetricRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -25,11 +27,13 @@ public class TokenProviderTest {
     private final long ONE_MINUTE = 60000;
     private JHipsterProperties jHipsterProperties;
     private TokenProvider tokenProvider;
+    private MetricRegistry metricRegistry;
 
     @Before
     public void setup() {
         jHipsterProperties = Mockito.mock(JHipsterProperties.class);
-        tokenProvider = new TokenProvider(jHipsterProperties);
+        metricRegistry = new MetricRegistry();
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), metricRegistry);
         ReflectionTestUtils.setField(tokenProvider, "secretKey", secretKey);
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
     }
@@ -79,6 +83,34 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testResolveAuthenticationCachesValidToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = tokenProvider.resolveAuthentication(token);
+        Authentication second = tokenProvider.resolveAuthentication(token);
+
+        assertThat(first).isNotNull();
+        assertThat(first.getName()).isEqualTo("anonymous");
+        assertThat(first.getAuthorities()).containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
+        assertThat(second).isSameAs(first);
+        assertThat(metricRegistry.counter(MetricRegistry.name(TokenProvider.class, "cache", "misses")).getCount()).isEqualTo(1);
+        assertThat(metricRegistry.counter(MetricRegistry.name(TokenProvider.class, "cache", "hits")).getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer(MetricRegistry.name(TokenProvider.class, "verification")).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testResolveAuthenticationReturnsNullWhenJWTisInvalid() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String expiredToken = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.resolveAuthentication(expiredToken)).isNull();
+        assertThat(tokenProvider.resolveAuthentication(expiredToken)).isNull();
+        assertThat(tokenProvider.resolveAuthentication(createTokenWithDifferentSignature())).isNull();
+        assertThat(tokenProvider.resolveAuthentication("")).isNull();
+        assertThat(metricRegistry.counter(MetricRegistry.name(TokenProvider.class, "cache", "hits")).getCount()).isEqualTo(0);
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
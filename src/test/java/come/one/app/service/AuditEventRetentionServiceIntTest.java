@@ -0,0 +1,101 @@
+package come.one.app.service;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.domain.PersistentAuditEvent;
+import come.one.app.repository.PersistenceAuditEventRepository;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the AuditEventRetentionService.
+ *
+ * @see AuditEventRetentionService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class)
+@Transactional
+public class AuditEventRetentionServiceIntTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-12T10:00:00Z");
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private AuditEventRetentionService auditEventRetentionService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Before
+    public void init() {
+        persistenceAuditEventRepository.deleteAll();
+        Instant expired = NOW.minus(100, ChronoUnit.DAYS);
+        persistenceAuditEventRepository.save(createEvent("test-user", "AUTHENTICATION_SUCCESS", expired));
+        persistenceAuditEventRepository.save(createEvent("test-user", "AUTHENTICATION_SUCCESS", expired.plusSeconds(60)));
+        persistenceAuditEventRepository.save(createEvent("test-user", "AUTHENTICATION_FAILURE", expired));
+        persistenceAuditEventRepository.save(createEvent("test-user", "AUTHENTICATION_SUCCESS", NOW.minus(1, ChronoUnit.DAYS)));
+        persistenceAuditEventRepository.flush();
+    }
+
+    @Test
+    public void assertThatExpiredEventsAreSummarizedAndDeleted() {
+        auditEventRetentionService.purgeExpiredEvents(NOW);
+        em.clear();
+
+        List<PersistentAuditEvent> events = persistenceAuditEventRepository.findAll();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getAuditEventDate()).isEqualTo(NOW.minus(1, ChronoUnit.DAYS));
+        assertThat(((Number) em.createNativeQuery("SELECT COUNT(*) FROM jhi_persistent_audit_evt_data")
+            .getSingleResult()).longValue()).isEqualTo(1);
+
+        List<?> summaries = em.createNativeQuery("SELECT event_type, event_count FROM jhi_persistent_audit_evt_summary " +
+            "WHERE principal = 'test-user' ORDER BY event_type").getResultList();
+        assertThat(summaries).hasSize(2);
+        assertSummary((Object[]) summaries.get(0), "AUTHENTICATION_FAILURE", 1);
+        assertSummary((Object[]) summaries.get(1), "AUTHENTICATION_SUCCESS", 2);
+    }
+
+    @Test
+    public void assertThatPurgeCanBeRepeated() {
+        auditEventRetentionService.purgeExpiredEvents(NOW);
+        auditEventRetentionService.purgeExpiredEvents(NOW.plus(1, ChronoUnit.HOURS));
+        em.clear();
+
+        assertThat(persistenceAuditEventRepository.findAll()).hasSize(1);
+        assertThat(((Number) em.createNativeQuery("SELECT SUM(event_count) FROM jhi_persistent_audit_evt_summary")
+            .getSingleResult()).longValue()).isEqualTo(3);
+    }
+
+    private PersistentAuditEvent createEvent(String principal, String type, Instant date) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(principal);
+        event.setAuditEventType(type);
+        event.setAuditEventDate(date);
+        Map<String, String> data = new HashMap<>();
+        data.put("remoteAddress", "127.0.0.1");
+        event.setData(data);
+        return event;
+    }
+
+    private static void assertSummary(Object[] row, String eventType, long eventCount) {
+        assertThat(row[0]).isEqualTo(eventType);
+        // the Java type of the count depends on the database, an Integer on H2
+        assertThat(((Number) row[1]).longValue()).isEqualTo(eventCount);
+    }
+}
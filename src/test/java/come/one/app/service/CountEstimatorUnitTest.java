@@ -0,0 +1,90 @@
+package come.one.app.service;
+
+import come.one.app.config.ApplicationProperties;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CountEstimator, whose counts are run by hand rather than by a task executor.
+ *
+ * @see CountEstimator
+ */
+public class CountEstimatorUnitTest {
+
+    private final List<Runnable> counts = new ArrayList<>();
+
+    private ApplicationProperties applicationProperties;
+
+    private CountEstimator countEstimator;
+
+    @Before
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getPagination().getEstimatedCount().setMaxEntries(2);
+        applicationProperties.getPagination().getEstimatedCount().setRefreshIntervalMs(60000);
+        countEstimator = new CountEstimator(applicationProperties, counts::add);
+    }
+
+    @Test
+    public void assertThatFirstCountRunsInTheBackgroundOnce() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(countEstimator.estimate("search", () -> calls.incrementAndGet() * 10L)).isEmpty();
+        assertThat(countEstimator.estimate("search", () -> calls.incrementAndGet() * 10L)).isEmpty();
+        assertThat(counts).hasSize(1);
+        assertThat(calls.get()).isZero();
+
+        counts.get(0).run();
+        assertThat(countEstimator.estimate("search", () -> calls.incrementAndGet() * 10L)).isEqualTo(OptionalLong.of(10));
+        assertThat(counts).hasSize(1);
+    }
+
+    @Test
+    public void assertThatOldEstimateIsRecountedOnRead() {
+        applicationProperties.getPagination().getEstimatedCount().setRefreshIntervalMs(-1);
+        countEstimator.estimate("search", () -> 10);
+        counts.remove(0).run();
+
+        assertThat(countEstimator.estimate("search", () -> 20)).isEqualTo(OptionalLong.of(10));
+        counts.remove(0).run();
+        assertThat(countEstimator.estimate("search", () -> 30)).isEqualTo(OptionalLong.of(20));
+    }
+
+    @Test
+    public void assertThatCorrectionReplacesTheEstimate() {
+        countEstimator.estimate("search", () -> 10);
+        countEstimator.correct("search", 12);
+
+        assertThat(countEstimator.estimate("search", () -> 10)).isEqualTo(OptionalLong.of(12));
+    }
+
+    @Test
+    public void assertThatLeastRecentlyReadEstimateIsEvicted() {
+        countEstimator.estimate("first", () -> 1);
+        countEstimator.estimate("second", () -> 2);
+        countEstimator.estimate("first", () -> 1);
+        countEstimator.estimate("third", () -> 3);
+        counts.forEach(Runnable::run);
+
+        assertThat(countEstimator.size()).isEqualTo(2);
+        assertThat(countEstimator.estimate("first", () -> 1)).isEqualTo(OptionalLong.of(1));
+        assertThat(countEstimator.estimate("second", () -> 2)).isEmpty();
+    }
+
+    @Test
+    public void assertThatUnreadEstimatesAreDropped() {
+        applicationProperties.getPagination().getEstimatedCount().setTimeToLiveSeconds(-1);
+        countEstimator.estimate("search", () -> 10);
+
+        countEstimator.dropExpiredEstimates();
+        assertThat(countEstimator.size()).isZero();
+    }
+}
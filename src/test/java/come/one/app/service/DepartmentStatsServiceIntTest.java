@@ -0,0 +1,116 @@
+package come.one.app.service;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.domain.Department;
+import come.one.app.domain.Employee;
+import come.one.app.repository.DepartmentRepository;
+import come.one.app.repository.EmployeeRepository;
+import come.one.app.service.dto.DepartmentStatsDTO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the DepartmentStatsService.
+ * <p>
+ * Not transactional, as the statistics are only updated once the changes are committed.
+ *
+ * @see DepartmentStatsService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class)
+public class DepartmentStatsServiceIntTest {
+
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private Department first;
+
+    private Department second;
+
+    private final List<Long> employeeIds = new ArrayList<>();
+
+    @Before
+    public void init() {
+        first = departmentRepository.save(new Department().name("first").area(1L));
+        second = departmentRepository.save(new Department().name("second").area(2L));
+        departmentStatsService.rebuild();
+    }
+
+    @After
+    public void cleanup() {
+        employeeIds.stream().filter(employeeRepository::exists).forEach(employeeRepository::delete);
+        departmentRepository.delete(first.getId());
+        departmentRepository.delete(second.getId());
+    }
+
+    @Test
+    public void assertThatStatsFollowTheSavedEmployees() {
+        Employee young = save(new Employee().name("young").age(25).department(first));
+        Employee old = save(new Employee().name("old").age(55).department(first));
+        save(new Employee().name("unknown age").department(first));
+
+        assertThat(statsOf(first)).isEqualToComparingFieldByField(new DepartmentStatsDTO(first.getId(), 3, 40.0, 25, 55));
+        assertThat(statsOf(second)).isNull();
+
+        // the oldest employee moves to the second department
+        // the saved entity carries the new version, the one given is stale
+        old = employeeService.save(old.department(second));
+        assertThat(statsOf(first)).isEqualToComparingFieldByField(new DepartmentStatsDTO(first.getId(), 2, 25.0, 25, 25));
+        assertThat(statsOf(second)).isEqualToComparingFieldByField(new DepartmentStatsDTO(second.getId(), 1, 55.0, 55, 55));
+
+        // and gets younger
+        old = employeeService.save(old.age(45));
+        assertThat(statsOf(second)).isEqualToComparingFieldByField(new DepartmentStatsDTO(second.getId(), 1, 45.0, 45, 45));
+
+        employeeService.delete(young.getId());
+        assertThat(statsOf(first)).isEqualToComparingFieldByField(new DepartmentStatsDTO(first.getId(), 1, null, null, null));
+
+        employeeService.delete(old.getId());
+        assertThat(statsOf(second)).isNull();
+    }
+
+    @Test
+    public void assertThatRebuildCorrectsDrift() {
+        save(new Employee().name("saved").age(30).department(first));
+        // not seen by the service, as it doesn't go through the EmployeeService
+        employeeIds.add(employeeRepository.save(new Employee().name("direct").age(50).department(first)).getId());
+
+        assertThat(statsOf(first).getEmployeeCount()).isEqualTo(1);
+
+        departmentStatsService.rebuild();
+        assertThat(statsOf(first)).isEqualToComparingFieldByField(new DepartmentStatsDTO(first.getId(), 2, 40.0, 30, 50));
+    }
+
+    private Employee save(Employee employee) {
+        Employee result = employeeService.save(employee);
+        employeeIds.add(result.getId());
+        return result;
+    }
+
+    private DepartmentStatsDTO statsOf(Department department) {
+        return departmentStatsService.findAll().stream()
+            .filter(stats -> department.getId().equals(stats.getDepartmentId()))
+            .findFirst()
+            .orElse(null);
+    }
+}
@@ -0,0 +1,100 @@
+package come.one.app.service;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.config.ApplicationProperties;
+import come.one.app.domain.Employee;
+import come.one.app.repository.EmployeeRepository;
+import come.one.app.service.dto.EmployeeBulkResultDTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the EmployeeBulkService.
+ * <p>
+ * Not transactional, as each batch is saved in its own transaction.
+ *
+ * @see EmployeeBulkService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class)
+public class EmployeeBulkServiceIntTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    private EmployeeBulkService employeeBulkService;
+
+    private final List<Long> employeeIds = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getBulk().setBatchSize(2);
+        employeeBulkService = new EmployeeBulkService(employeeService, objectMapper, validator, applicationProperties);
+    }
+
+    @After
+    public void cleanup() {
+        employeeIds.stream().filter(Objects::nonNull).filter(employeeRepository::exists).forEach(employeeRepository::delete);
+    }
+
+    @Test
+    public void assertThatFailingBatchIsReportedAndTheOthersAreSaved() throws IOException {
+        Employee stale = employeeRepository.save(new Employee().name("stale"));
+        employeeIds.add(stale.getId());
+        // the version of the request is now stale
+        employeeRepository.save(stale.name("changed"));
+
+        List<EmployeeBulkResultDTO> results = save(
+            "{\"name\":\"first\"}\n" +
+            "{\"name\":\"second\"}\n" +
+            "{\"name\":\"third\"}\n" +
+            "{\"id\":" + stale.getId() + ",\"version\":" + stale.getVersion() + ",\"name\":\"overwritten\"}\n" +
+            "{\"name\":\"fifth\"}\n");
+
+        assertThat(results).extracting(EmployeeBulkResultDTO::getStatus).containsExactly(
+            EmployeeBulkResultDTO.Status.CREATED, EmployeeBulkResultDTO.Status.CREATED,
+            EmployeeBulkResultDTO.Status.FAILED, EmployeeBulkResultDTO.Status.FAILED,
+            EmployeeBulkResultDTO.Status.CREATED);
+        assertThat(results.get(2).getId()).isNull();
+        assertThat(results.get(2).getErrors()).hasSize(1);
+        assertThat(results.get(3).getId()).isEqualTo(stale.getId());
+
+        assertThat(employeeRepository.findOne(results.get(0).getId()).getName()).isEqualTo("first");
+        assertThat(employeeRepository.findOne(results.get(4).getId()).getName()).isEqualTo("fifth");
+        assertThat(employeeRepository.findOne(stale.getId()).getName()).isEqualTo("changed");
+        assertThat(employeeRepository.findAll()).extracting(Employee::getName).doesNotContain("third");
+    }
+
+    private List<EmployeeBulkResultDTO> save(String body) throws IOException {
+        List<EmployeeBulkResultDTO> results = employeeBulkService.save(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        results.forEach(result -> employeeIds.add(result.getId()));
+        return results;
+    }
+}
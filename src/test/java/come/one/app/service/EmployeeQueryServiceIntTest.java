@@ -0,0 +1,105 @@
+package come.one.app.service;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.domain.Department;
+import come.one.app.domain.Employee;
+import come.one.app.service.dto.EmployeeCriteria;
+import come.one.app.service.dto.EmployeeDTO;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the EmployeeQueryService.
+ *
+ * @see EmployeeQueryService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class)
+@Transactional
+public class EmployeeQueryServiceIntTest {
+
+    @Autowired
+    private EmployeeQueryService employeeQueryService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @Before
+    public void init() {
+        // each employee in its own department, which is the worst case for the department selects
+        for (int i = 0; i < 3; i++) {
+            Department department = new Department().name("department-" + i).area((long) i);
+            em.persist(department);
+            Employee employee = new Employee()
+                .name("employee-" + i)
+                .age(20 + i)
+                .birthday(ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneOffset.UTC))
+                .department(department);
+            em.persist(employee);
+        }
+        em.flush();
+        em.clear();
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @Transactional
+    public void assertThatPageLoadsDepartmentsWithoutExtraStatements() {
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(new EmployeeCriteria(), new PageRequest(0, 2));
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        for (EmployeeDTO employee : page.getContent()) {
+            assertThat(employee.getDepartment().getName()).isNotNull();
+        }
+        // the page query and the count query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Transactional
+    public void assertThatSliceLoadsDepartmentsWithoutExtraStatements() {
+        Slice<EmployeeDTO> slice = employeeQueryService.findSliceByCriteria(new EmployeeCriteria(), new PageRequest(0, 2));
+
+        assertThat(slice.getContent()).hasSize(2);
+        for (EmployeeDTO employee : slice.getContent()) {
+            assertThat(employee.getDepartment().getName()).isNotNull();
+        }
+        // the slice query only
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void assertThatPageDoesNotLoadEntities() {
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(new EmployeeCriteria(), new PageRequest(1, 2));
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        // the total is known from the last page, without count query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0);
+    }
+}
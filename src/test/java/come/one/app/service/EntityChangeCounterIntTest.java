@@ -0,0 +1,82 @@
+package come.one.app.service;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.config.ApplicationProperties;
+import come.one.app.domain.Department;
+import come.one.app.domain.Employee;
+import come.one.app.repository.DepartmentRepository;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the EntityChangeCounter.
+ * <p>
+ * Not transactional, as the changes are only counted once they are committed.
+ *
+ * @see EntityChangeCounter
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class)
+public class EntityChangeCounterIntTest {
+
+    @Autowired
+    private EntityChangeCounter entityChangeCounter;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void assertThatCommittedChangesAreCounted() {
+        long count = entityChangeCounter.getCount(Department.class);
+        long employeeCount = entityChangeCounter.getCount(Employee.class);
+        long start = System.currentTimeMillis();
+
+        Department department = departmentRepository.save(new Department().name("counted").area(1L));
+        assertThat(entityChangeCounter.getCount(Department.class)).isEqualTo(count + 1);
+        department.setArea(2L);
+        department = departmentRepository.save(department);
+        assertThat(entityChangeCounter.getCount(Department.class)).isEqualTo(count + 2);
+        departmentRepository.delete(department.getId());
+        assertThat(entityChangeCounter.getCount(Department.class)).isEqualTo(count + 3);
+
+        assertThat(entityChangeCounter.getCount(Employee.class)).isEqualTo(employeeCount);
+        assertThat(entityChangeCounter.getLastModified(Employee.class, Department.class)).isGreaterThanOrEqualTo(start);
+    }
+
+    @Test
+    public void assertThatRolledBackChangesAreNotCounted() {
+        long count = entityChangeCounter.getCount(Department.class);
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            departmentRepository.saveAndFlush(new Department().name("rolled back").area(1L));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(entityChangeCounter.getCount(Department.class)).isEqualTo(count);
+    }
+
+    @Test
+    public void assertThatCountsAreIncompleteWithReplicasOrSeveralInstances() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        assertThat(new EntityChangeCounter(null, applicationProperties).isComplete()).isTrue();
+
+        applicationProperties.getDatasource().getReplicas().add(new ApplicationProperties.Datasource.Replica());
+        assertThat(new EntityChangeCounter(null, applicationProperties).isComplete()).isFalse();
+
+        applicationProperties.getDatasource().getReplicas().clear();
+        applicationProperties.getConditionalRequests().setListEtags(false);
+        assertThat(new EntityChangeCounter(null, applicationProperties).isComplete()).isFalse();
+    }
+}
@@ -0,0 +1,151 @@
+package come.one.app.service;
+
+import come.one.app.TraningbackendApp;
+import come.one.app.config.ApplicationProperties;
+import come.one.app.domain.OutboxEmail;
+import come.one.app.repository.OutboxEmailRepository;
+
+import com.codahale.metrics.MetricRegistry;
+import com.icegreen.greenmail.junit.GreenMailRule;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the MailOutboxDispatcher, sending to a local SMTP server.
+ * <p>
+ * Not transactional, as the dispatcher reads the committed emails in transactions of its own.
+ *
+ * @see MailOutboxDispatcher
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TraningbackendApp.class)
+public class MailOutboxDispatcherIntTest {
+
+    @Rule
+    public final GreenMailRule greenMail = new GreenMailRule(ServerSetupTest.SMTP);
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private TransactionTemplate transactionTemplate;
+
+    private MetricRegistry metricRegistry;
+
+    @Before
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outboxEmailRepository.deleteAll();
+    }
+
+    @After
+    public void cleanup() {
+        outboxEmailRepository.deleteAll();
+    }
+
+    @Test
+    public void assertThatQueuedEmailsAreSentInOneBatch() throws Exception {
+        transactionTemplate.execute(status -> {
+            for (int i = 0; i < 3; i++) {
+                mailService.sendEmail("user" + i + "@example.com", "subject " + i, "content " + i, false, false);
+            }
+            return null;
+        });
+
+        assertThat(dispatcher(ServerSetupTest.SMTP.getPort()).dispatch()).isEqualTo(3);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        assertThat(received[0].getSubject()).isEqualTo("subject 0");
+        assertThat(outboxEmailRepository.count()).isZero();
+        assertThat(metricRegistry.meter(MetricRegistry.name(MailOutboxDispatcher.class, "sent")).getCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void assertThatRolledBackEmailsAreNotQueued() {
+        transactionTemplate.execute(status -> {
+            mailService.sendEmail("user@example.com", "subject", "content", false, false);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(outboxEmailRepository.count()).isZero();
+        assertThat(dispatcher(ServerSetupTest.SMTP.getPort()).dispatch()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    public void assertThatFailedEmailsAreRetriedWithBackoff() {
+        mailService.sendEmail("user@example.com", "subject", "content", false, false);
+        // nothing listens on that port
+        MailOutboxDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort() + 1);
+
+        Instant before = Instant.now();
+        assertThat(dispatcher.dispatch()).isZero();
+
+        OutboxEmail email = single(outboxEmailRepository.findAll());
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getLastError()).isNotNull();
+        assertThat(email.getNextAttemptDate()
+            .isBefore(before.plusSeconds(applicationProperties.getMailOutbox().getInitialBackoffSeconds()))).isFalse();
+        assertThat(metricRegistry.meter(MetricRegistry.name(MailOutboxDispatcher.class, "failed")).getCount()).isEqualTo(1);
+
+        // not due until the backoff has elapsed
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(single(outboxEmailRepository.findAll()).getAttempts()).isEqualTo(1);
+
+        // the last attempt fails too
+        email.setAttempts(applicationProperties.getMailOutbox().getMaxAttempts() - 1);
+        email.setNextAttemptDate(Instant.now());
+        outboxEmailRepository.save(email);
+        assertThat(dispatcher.dispatch()).isZero();
+
+        email = single(outboxEmailRepository.findAll());
+        assertThat(email.getAttempts()).isEqualTo(applicationProperties.getMailOutbox().getMaxAttempts());
+        assertThat(email.getNextAttemptDate()).isNull();
+        assertThat(metricRegistry.meter(MetricRegistry.name(MailOutboxDispatcher.class, "given-up")).getCount()).isEqualTo(1);
+
+        // and stays given up once the server is back
+        assertThat(dispatcher(ServerSetupTest.SMTP.getPort()).dispatch()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    private MailOutboxDispatcher dispatcher(int port) {
+        // a registry per dispatcher, which registers its gauge
+        metricRegistry = new MetricRegistry();
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(port);
+        return new MailOutboxDispatcher(outboxEmailRepository, mailService, javaMailSender, transactionManager,
+            applicationProperties, metricRegistry);
+    }
+
+    private static OutboxEmail single(List<OutboxEmail> emails) {
+        assertThat(emails).hasSize(1);
+        return emails.get(0);
+    }
+}
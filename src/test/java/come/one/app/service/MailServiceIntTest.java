@@ -2,21 +2,20 @@ package come.one.app.service;
 import come.one.app.config.Constants;
 
 import come.one.app.TraningbackendApp;
+import come.one.app.domain.OutboxEmail;
 import come.one.app.domain.User;
+import come.one.app.repository.OutboxEmailRepository;
 import io.github.jhipster.config.JHipsterProperties;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
-import org.mockito.MockitoAnnotations;
-import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailSendException;
+import org.springframework.data.domain.Sort;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.spring4.SpringTemplateEngine;
 
 import javax.mail.Multipart;
@@ -26,11 +25,15 @@ import javax.mail.internet.MimeMultipart;
 import java.io.ByteArrayOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.*;
 
+/**
+ * Test class for the MailService: the emails are queued in the outbox, and their messages are then created from it.
+ *
+ * @see MailService
+ */
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = TraningbackendApp.class)
+@Transactional
 public class MailServiceIntTest {
 
     @Autowired
@@ -42,26 +45,21 @@ public class MailServiceIntTest {
     @Autowired
     private SpringTemplateEngine templateEngine;
 
-    @Spy
-    private JavaMailSenderImpl javaMailSender;
-
-    @Captor
-    private ArgumentCaptor messageCaptor;
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
 
     private MailService mailService;
 
     @Before
     public void setup() {
-        MockitoAnnotations.initMocks(this);
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine);
+        mailService = new MailService(jHipsterProperties, new JavaMailSenderImpl(), messageSource, templateEngine,
+            outboxEmailRepository);
     }
 
     @Test
     public void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send((MimeMessage) messageCaptor.capture());
-        MimeMessage message = (MimeMessage) messageCaptor.getValue();
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo("john.doe@example.com");
         assertThat(message.getFrom()[0].toString()).isEqualTo("test@localhost");
@@ -73,8 +71,7 @@ public class MailServiceIntTest {
     @Test
     public void testSendHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send((MimeMessage) messageCaptor.capture());
-        MimeMessage message = (MimeMessage) messageCaptor.getValue();
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo("john.doe@example.com");
         assertThat(message.getFrom()[0].toString()).isEqualTo("test@localhost");
@@ -86,8 +83,7 @@ public class MailServiceIntTest {
     @Test
     public void testSendMultipartEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send((MimeMessage) messageCaptor.capture());
-        MimeMessage message = (MimeMessage) messageCaptor.getValue();
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -103,8 +99,7 @@ public class MailServiceIntTest {
     @Test
     public void testSendMultipartHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send((MimeMessage) messageCaptor.capture());
-        MimeMessage message = (MimeMessage) messageCaptor.getValue();
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -124,8 +119,7 @@ public class MailServiceIntTest {
         user.setEmail("john.doe@example.com");
         user.setLangKey("en");
         mailService.sendEmailFromTemplate(user, "testEmail", "email.test.title");
-        verify(javaMailSender).send((MimeMessage) messageCaptor.capture());
-        MimeMessage message = (MimeMessage) messageCaptor.getValue();
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
         assertThat(message.getFrom()[0].toString()).isEqualTo("test@localhost");
@@ -133,6 +127,28 @@ public class MailServiceIntTest {
         assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
     }
 
+    @Test
+    public void testSendEmailFromTemplateWithoutLangKey() throws Exception {
+        User user = new User();
+        user.setLogin("john");
+        user.setEmail("john.doe@example.com");
+        mailService.sendEmailFromTemplate(user, "testEmail", "email.test.title");
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
+        assertThat(message.getSubject()).isEqualTo("test title");
+        assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
+    }
+
+    @Test
+    public void testSendEmailFromMissingTemplateIsNotQueued() throws Exception {
+        User user = new User();
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        user.setLogin("john");
+        user.setEmail("john.doe@example.com");
+        long count = outboxEmailRepository.count();
+        mailService.sendEmailFromTemplate(user, "missingEmail", "email.test.title");
+        assertThat(outboxEmailRepository.count()).isEqualTo(count);
+    }
+
     @Test
     public void testSendActivationEmail() throws Exception {
         User user = new User();
@@ -140,8 +156,7 @@ public class MailServiceIntTest {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send((MimeMessage) messageCaptor.capture());
-        MimeMessage message = (MimeMessage) messageCaptor.getValue();
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
         assertThat(message.getFrom()[0].toString()).isEqualTo("test@localhost");
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -155,8 +170,7 @@ public class MailServiceIntTest {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send((MimeMessage) messageCaptor.capture());
-        MimeMessage message = (MimeMessage) messageCaptor.getValue();
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
         assertThat(message.getFrom()[0].toString()).isEqualTo("test@localhost");
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -170,8 +184,7 @@ public class MailServiceIntTest {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send((MimeMessage) messageCaptor.capture());
-        MimeMessage message = (MimeMessage) messageCaptor.getValue();
+        MimeMessage message = mailService.createMimeMessage(lastQueuedEmail());
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
         assertThat(message.getFrom()[0].toString()).isEqualTo("test@localhost");
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -179,9 +192,17 @@ public class MailServiceIntTest {
     }
 
     @Test
-    public void testSendEmailWithException() throws Exception {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+    public void testSendEmailIsQueued() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        OutboxEmail email = lastQueuedEmail();
+        assertThat(email.getRecipient()).isEqualTo("john.doe@example.com");
+        assertThat(email.getSubject()).isEqualTo("testSubject");
+        assertThat(email.getAttempts()).isZero();
+        assertThat(email.getNextAttemptDate()).isNotNull();
+        assertThat(email.getLastError()).isNull();
     }
 
+    private OutboxEmail lastQueuedEmail() {
+        return outboxEmailRepository.findAll(new Sort(Sort.Direction.DESC, "id")).get(0);
+    }
 }
@@ -0,0 +1,88 @@
+package come.one.app.service.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the TrigramIndex.
+ *
+ * @see TrigramIndex
+ */
+public class TrigramIndexUnitTest {
+
+    private TrigramIndex index;
+
+    @Before
+    public void setup() {
+        index = new TrigramIndex();
+        index.put(1, "John Smith");
+        index.put(2, "Jane Smithers");
+        index.put(3, "Smith");
+        index.put(4, "Nguyễn Văn An");
+        index.put(5, "Anna Blacksmith");
+    }
+
+    @Test
+    public void testSubstringSearchIsRanked() {
+        // exact, then prefix, then word prefix with the shorter names first, then substring
+        assertThat(ids("smith")).containsExactly(3L, 1L, 2L, 5L);
+    }
+
+    @Test
+    public void testSearchIgnoresCaseAndAccents() {
+        assertThat(ids("NGUYEN van")).containsExactly(4L);
+        assertThat(ids("văn")).containsExactly(4L);
+    }
+
+    @Test
+    public void testShortQueriesMatchWordStarts() {
+        assertThat(ids("an")).containsExactly(5L, 4L);
+        assertThat(ids("j")).containsExactly(1L, 2L);
+        // "mi" is only in the middle of words
+        assertThat(ids("mi")).isEmpty();
+    }
+
+    @Test
+    public void testTrigramsMustBeContiguous() {
+        // all the trigrams of "ohn smi" are in "John Smith", but not those of "ith joh"
+        assertThat(ids("ohn smi")).containsExactly(1L);
+        assertThat(ids("ith joh")).isEmpty();
+    }
+
+    @Test
+    public void testLimit() {
+        assertThat(index.search("smith", 2, 100)).hasSize(2);
+        assertThat(ids("smith")).hasSize(4);
+    }
+
+    @Test
+    public void testPutReplacesAndRemoves() {
+        index.put(1, "John Doe");
+        assertThat(ids("smith")).containsExactly(3L, 2L, 5L);
+        assertThat(ids("doe")).containsExactly(1L);
+
+        index.remove(3);
+        assertThat(ids("smith")).containsExactly(2L, 5L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void testCompaction() {
+        for (int i = 0; i < 5000; i++) {
+            index.put(100 + i % 10, "Name " + i);
+        }
+        assertThat(index.size()).isEqualTo(15);
+        assertThat(ids("name 4999")).containsExactly(109L);
+        assertThat(ids("smith")).containsExactly(3L, 1L, 2L, 5L);
+        assertThat(index.memoryBytes()).isPositive();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10, 1000).stream().map(TrigramIndex.Match::getId).collect(Collectors.toList());
+    }
+}
@@ -5,9 +5,9 @@ import come.one.app.TraningbackendApp;
 import come.one.app.domain.Authority;
 import come.one.app.domain.User;
 import come.one.app.repository.AuthorityRepository;
+import come.one.app.repository.OutboxEmailRepository;
 import come.one.app.repository.UserRepository;
 import come.one.app.security.AuthoritiesConstants;
-import come.one.app.service.MailService;
 import come.one.app.service.dto.UserDTO;
 import come.one.app.web.rest.errors.ExceptionTranslator;
 import come.one.app.web.rest.vm.KeyAndPasswordVM;
@@ -37,8 +37,6 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
-import static org.mockito.Matchers.anyObject;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -58,6 +56,9 @@ public class AccountResourceIntTest {
     @Autowired
     private AuthorityRepository authorityRepository;
 
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
     @Autowired
     private UserService userService;
 
@@ -73,9 +74,6 @@ public class AccountResourceIntTest {
     @Mock
     private UserService mockUserService;
 
-    @Mock
-    private MailService mockMailService;
-
     private MockMvc restMvc;
 
     private MockMvc restUserMockMvc;
@@ -83,12 +81,11 @@ public class AccountResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        doNothing().when(mockMailService).sendActivationEmail(anyObject());
         AccountResource accountResource =
-            new AccountResource(userRepository, userService, mockMailService);
+            new AccountResource(userRepository, userService);
 
         AccountResource accountUserMockResource =
-            new AccountResource(userRepository, mockUserService, mockMailService);
+            new AccountResource(userRepository, mockUserService);
         this.restMvc = MockMvcBuilders.standaloneSetup(accountResource)
             .setMessageConverters(httpMessageConverters)
             .setControllerAdvice(exceptionTranslator)
@@ -179,6 +176,8 @@ public class AccountResourceIntTest {
 
         Optional<User> user = userRepository.findOneByLogin("joe");
         assertThat(user.isPresent()).isTrue();
+        // the activation email is queued in the registration transaction
+        assertThat(outboxEmailRepository.findAll()).extracting("recipient").contains("joe@example.com");
     }
 
     @Test
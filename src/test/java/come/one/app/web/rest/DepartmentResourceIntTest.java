@@ -6,6 +6,8 @@ import come.one.app.domain.Department;
 import come.one.app.domain.Employee;
 import come.one.app.repository.DepartmentRepository;
 import come.one.app.service.DepartmentService;
+import come.one.app.service.DepartmentStatsService;
+import come.one.app.service.EntityChangeCounter;
 import come.one.app.service.dto.DepartmentDTO;
 import come.one.app.service.mapper.DepartmentMapper;
 import come.one.app.web.rest.errors.ExceptionTranslator;
@@ -19,6 +21,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -62,6 +65,12 @@ public class DepartmentResourceIntTest {
     @Autowired
     private DepartmentQueryService departmentQueryService;
 
+    @Autowired
+    private DepartmentStatsService departmentStatsService;
+
+    @Autowired
+    private EntityChangeCounter entityChangeCounter;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -81,7 +90,7 @@ public class DepartmentResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final DepartmentResource departmentResource = new DepartmentResource(departmentService, departmentQueryService);
+        final DepartmentResource departmentResource = new DepartmentResource(departmentService, departmentQueryService, departmentStatsService, entityChangeCounter);
         this.restDepartmentMockMvc = MockMvcBuilders.standaloneSetup(departmentResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -162,6 +171,28 @@ public class DepartmentResourceIntTest {
             .andExpect(jsonPath("$.[*].area").value(hasItem(DEFAULT_AREA.intValue())));
     }
 
+    @Test
+    @Transactional
+    public void getDepartmentStats() throws Exception {
+        // Initialize the database
+        em.persist(department);
+        em.persist(EmployeeResourceIntTest.createEntity(em).age(30).department(department));
+        em.persist(EmployeeResourceIntTest.createEntity(em).age(40).department(department));
+        em.persist(EmployeeResourceIntTest.createEntity(em).age(null).department(department));
+        em.flush();
+        departmentStatsService.rebuild();
+
+        // Get the statistics
+        restDepartmentMockMvc.perform(get("/api/departments/stats"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[*].departmentId").value(hasItem(department.getId().intValue())))
+            .andExpect(jsonPath("$.[?(@.departmentId == " + department.getId() + ")].employeeCount").value(hasItem(3)))
+            .andExpect(jsonPath("$.[?(@.departmentId == " + department.getId() + ")].averageAge").value(hasItem(35.0)))
+            .andExpect(jsonPath("$.[?(@.departmentId == " + department.getId() + ")].minAge").value(hasItem(30)))
+            .andExpect(jsonPath("$.[?(@.departmentId == " + department.getId() + ")].maxAge").value(hasItem(40)));
+    }
+
     @Test
     @Transactional
     public void getDepartment() throws Exception {
@@ -177,6 +208,41 @@ public class DepartmentResourceIntTest {
             .andExpect(jsonPath("$.area").value(DEFAULT_AREA.intValue()));
     }
 
+    @Test
+    @Transactional
+    public void getDepartmentWithETag() throws Exception {
+        // Initialize the database
+        departmentRepository.saveAndFlush(department);
+
+        restDepartmentMockMvc.perform(get("/api/departments/{id}", department.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(jsonPath("$.version").value(0));
+        restDepartmentMockMvc.perform(get("/api/departments/{id}", department.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        restDepartmentMockMvc.perform(get("/api/departments/{id}", department.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(department.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getAllDepartmentsWithETag() throws Exception {
+        // Initialize the database
+        departmentRepository.saveAndFlush(department);
+
+        String eTag = restDepartmentMockMvc.perform(get("/api/departments?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].version").value(hasItem(0)))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        restDepartmentMockMvc.perform(get("/api/departments?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
     @Test
     @Transactional
     public void getAllDepartmentsByNameIsEqualToSomething() throws Exception {
@@ -359,6 +425,35 @@ public class DepartmentResourceIntTest {
         assertThat(testDepartment.getArea()).isEqualTo(UPDATED_AREA);
     }
 
+    @Test
+    @Transactional
+    public void updateDepartmentWithIfMatch() throws Exception {
+        // Initialize the database
+        departmentRepository.saveAndFlush(department);
+
+        DepartmentDTO departmentDTO = departmentMapper.toDto(department);
+        departmentDTO.setName(UPDATED_NAME);
+        departmentDTO.setVersion(null);
+
+        restDepartmentMockMvc.perform(put("/api/departments")
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(departmentDTO)))
+            .andExpect(status().isPreconditionFailed());
+        restDepartmentMockMvc.perform(put("/api/departments")
+            .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(departmentDTO)))
+            .andExpect(status().isPreconditionFailed());
+
+        restDepartmentMockMvc.perform(put("/api/departments")
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(departmentDTO)))
+            .andExpect(status().isOk());
+        assertThat(departmentRepository.findOne(department.getId()).getName()).isEqualTo(UPDATED_NAME);
+    }
+
     @Test
     @Transactional
     public void updateNonExistingDepartment() throws Exception {
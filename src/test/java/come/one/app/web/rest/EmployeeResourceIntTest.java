@@ -5,11 +5,17 @@ import come.one.app.TraningbackendApp;
 import come.one.app.domain.Employee;
 import come.one.app.domain.Department;
 import come.one.app.repository.EmployeeRepository;
+import come.one.app.service.EmployeeBulkService;
+import come.one.app.service.EmployeeExportService;
+import come.one.app.service.EmployeeSearchService;
 import come.one.app.service.EmployeeService;
+import come.one.app.service.EntityChangeCounter;
 import come.one.app.web.rest.errors.ExceptionTranslator;
 import come.one.app.service.dto.EmployeeCriteria;
 import come.one.app.service.EmployeeQueryService;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -17,24 +23,32 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.net.URI;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.ZoneOffset;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static come.one.app.web.rest.TestUtil.sameInstant;
 import static come.one.app.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -65,6 +79,18 @@ public class EmployeeResourceIntTest {
     @Autowired
     private EmployeeQueryService employeeQueryService;
 
+    @Autowired
+    private EmployeeExportService employeeExportService;
+
+    @Autowired
+    private EmployeeBulkService employeeBulkService;
+
+    @Autowired
+    private EmployeeSearchService employeeSearchService;
+
+    @Autowired
+    private EntityChangeCounter entityChangeCounter;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -84,7 +110,7 @@ public class EmployeeResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final EmployeeResource employeeResource = new EmployeeResource(employeeService, employeeQueryService);
+        final EmployeeResource employeeResource = new EmployeeResource(employeeService, employeeQueryService, employeeExportService, employeeBulkService, employeeSearchService, entityChangeCounter);
         this.restEmployeeMockMvc = MockMvcBuilders.standaloneSetup(employeeResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -150,6 +176,61 @@ public class EmployeeResourceIntTest {
         assertThat(employeeList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    public void bulkSaveEmployees() throws Exception {
+        employeeRepository.saveAndFlush(employee);
+        int databaseSizeBeforeCreate = employeeRepository.findAll().size();
+
+        String body = "[" +
+            "{\"name\":\"" + UPDATED_NAME + "\",\"age\":" + UPDATED_AGE + "}," +
+            "{\"age\":" + UPDATED_AGE + "}," +
+            "{\"id\":" + employee.getId() + ",\"name\":\"" + UPDATED_NAME + "\"}," +
+            "{\"id\":" + Long.MAX_VALUE + ",\"name\":\"" + UPDATED_NAME + "\"}" +
+            "]";
+        restEmployeeMockMvc.perform(post("/api/employees/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(4)))
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value("INVALID"))
+            .andExpect(jsonPath("$.[1].errors.[0]").value(containsString("name")))
+            .andExpect(jsonPath("$.[2].status").value("UPDATED"))
+            .andExpect(jsonPath("$.[2].id").value(employee.getId().intValue()))
+            .andExpect(jsonPath("$.[3].status").value("NOT_FOUND"));
+
+        assertThat(employeeRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+        assertThat(employeeRepository.findOne(employee.getId()).getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void bulkSaveEmployeesAsNdjsonInBatches() throws Exception {
+        int databaseSizeBeforeCreate = employeeRepository.findAll().size();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            body.append("{\"name\":\"").append(DEFAULT_NAME).append(i).append("\",\"age\":").append(i).append("}\n");
+        }
+        body.append("{\"name\":");
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        restEmployeeMockMvc.perform(post("/api/employees/bulk")
+            .contentType("application/x-ndjson")
+            .content(body.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(21)))
+            .andExpect(jsonPath("$.[19].status").value("CREATED"))
+            .andExpect(jsonPath("$.[20].status").value("INVALID"));
+
+        // the inserts are sent in a single JDBC batch, besides the calls to the id sequence
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(20);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+        assertThat(employeeRepository.findAll()).hasSize(databaseSizeBeforeCreate + 20);
+    }
+
     @Test
     @Transactional
     public void checkNameIsRequired() throws Exception {
@@ -184,6 +265,163 @@ public class EmployeeResourceIntTest {
             .andExpect(jsonPath("$.[*].birthday").value(hasItem(sameInstant(DEFAULT_BIRTHDAY))));
     }
 
+    @Test
+    @Transactional
+    public void getAllEmployeesWithETag() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+
+        String eTag = restEmployeeMockMvc.perform(get("/api/employees?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        // no employee or department committed since
+        restEmployeeMockMvc.perform(get("/api/employees?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+        restEmployeeMockMvc.perform(get("/api/employees?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+            .andExpect(status().isNotModified());
+        restEmployeeMockMvc.perform(get("/api/employees?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, "\"0.0.0\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void getAllEmployeesWithKeysetPagination() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+        Employee other = createEntity(em).name(UPDATED_NAME);
+        employeeRepository.saveAndFlush(other);
+
+        // Get the first slice
+        MvcResult result = restEmployeeMockMvc.perform(get("/api/employees?after=&size=1&sort=name,asc&name.in=" + DEFAULT_NAME + "," + UPDATED_NAME))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$").value(hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(employee.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+
+        // Follow the next link, which keeps the criteria
+        Matcher next = Pattern.compile("<([^>]+)>; rel=\"next\"").matcher(result.getResponse().getHeader(HttpHeaders.LINK));
+        assertThat(next.find()).isTrue();
+        restEmployeeMockMvc.perform(get(URI.create(next.group(1))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+    }
+
+    @Test
+    @Transactional
+    public void getAllEmployeesWithInvalidCursor() throws Exception {
+        restEmployeeMockMvc.perform(get("/api/employees?after=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+
+        restEmployeeMockMvc.perform(get("/api/employees?after=&sort=age,asc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllEmployeesWithoutCount() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+        employeeRepository.saveAndFlush(createEntity(em).name(UPDATED_NAME));
+
+        // Get the first page, which is followed by another one
+        restEmployeeMockMvc.perform(get("/api/employees?count=none&page=0&size=1&sort=id,asc&name.in=" + DEFAULT_NAME + "," + UPDATED_NAME))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(employee.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("page=1&size=1>; rel=\"next\"")))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"last\""))));
+
+        // Get the last page
+        restEmployeeMockMvc.perform(get("/api/employees?count=none&page=1&size=1&sort=id,asc&name.in=" + DEFAULT_NAME + "," + UPDATED_NAME))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(1)))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"prev\"")));
+    }
+
+    @Test
+    @Transactional
+    public void getAllEmployeesWithEstimatedCount() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+        employeeRepository.saveAndFlush(createEntity(em).name(UPDATED_NAME));
+
+        restEmployeeMockMvc.perform(get("/api/employees?count=estimate&page=0&size=1&age.equals=" + DEFAULT_AGE + "&name.in=" + DEFAULT_NAME + "," + UPDATED_NAME))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(1)))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(header().string("X-Total-Count-Estimated", "true"));
+
+        restEmployeeMockMvc.perform(get("/api/employees?count=unknown"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void exportEmployees() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+        Employee other = createEntity(em).name("Doe, \"Jane\"");
+        employeeRepository.saveAndFlush(other);
+
+        String ndjson = restEmployeeMockMvc.perform(get("/api/employees/export?format=ndjson&id.in=" + employee.getId() + "," + other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+        // one object per line, with nothing before it, and a newline after the last one
+        String[] lines = ndjson.split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{\"id\":" + employee.getId() + ",").endsWith("}");
+        assertThat(lines[1]).startsWith("{\"id\":" + other.getId() + ",").endsWith("}");
+        assertThat(lines[2]).isEmpty();
+
+        String csv = restEmployeeMockMvc.perform(get("/api/employees/export?format=csv&id.in=" + employee.getId() + "," + other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andReturn().getResponse().getContentAsString();
+        assertThat(csv.split("\n")).containsExactly(
+            "id,name,age,birthday,departmentId,departmentName",
+            employee.getId() + "," + DEFAULT_NAME + "," + DEFAULT_AGE + ",1970-01-01T00:00:00Z,,",
+            other.getId() + ",\"Doe, \"\"Jane\"\"\"," + DEFAULT_AGE + ",1970-01-01T00:00:00Z,,");
+
+        restEmployeeMockMvc.perform(get("/api/employees/export?format=xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void searchEmployees() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+        Employee other = employeeRepository.saveAndFlush(createEntity(em).name("Zaaaaaaaaaaa"));
+        employeeSearchService.rebuild();
+
+        // Search the employees, the names starting with the query first
+        restEmployeeMockMvc.perform(get("/api/employees/_search?q=aaaaa&limit=50"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(other.getId().intValue())))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME));
+
+        // short queries match the start of the words
+        restEmployeeMockMvc.perform(get("/api/employees/_search?q=za&limit=50"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(other.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(employee.getId().intValue()))));
+    }
+
     @Test
     @Transactional
     public void getEmployee() throws Exception {
@@ -200,6 +438,52 @@ public class EmployeeResourceIntTest {
             .andExpect(jsonPath("$.birthday").value(sameInstant(DEFAULT_BIRTHDAY)));
     }
 
+    @Test
+    @Transactional
+    public void getEmployeeWithETag() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+
+        restEmployeeMockMvc.perform(get("/api/employees/{id}", employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(jsonPath("$.version").value(0));
+        restEmployeeMockMvc.perform(get("/api/employees/{id}", employee.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(content().string(""));
+
+        employee.setName(UPDATED_NAME);
+        em.flush();
+        restEmployeeMockMvc.perform(get("/api/employees/{id}", employee.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    public void getEmployeeWithETagAfterDepartmentUpdate() throws Exception {
+        // Initialize the database
+        Department department = DepartmentResourceIntTest.createEntity(em);
+        em.persist(department);
+        employee.setDepartment(department);
+        employeeRepository.saveAndFlush(employee);
+        String eTag = "\"0." + department.getId() + ".0\"";
+
+        restEmployeeMockMvc.perform(get("/api/employees/{id}", employee.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // the name of the department is part of the employee
+        department.setName(UPDATED_NAME);
+        em.flush();
+        restEmployeeMockMvc.perform(get("/api/employees/{id}", employee.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0." + department.getId() + ".1\""))
+            .andExpect(jsonPath("$.department.name").value(UPDATED_NAME));
+    }
+
     @Test
     @Transactional
     public void getAllEmployeesByNameIsEqualToSomething() throws Exception {
@@ -451,6 +735,50 @@ public class EmployeeResourceIntTest {
         assertThat(testEmployee.getBirthday()).isEqualTo(UPDATED_BIRTHDAY);
     }
 
+    @Test
+    @Transactional
+    public void updateEmployeeWithIfMatch() throws Exception {
+        // Initialize the database
+        employeeService.save(employee);
+        em.flush();
+
+        Employee updatedEmployee = employeeRepository.findOne(employee.getId());
+        em.detach(updatedEmployee);
+        updatedEmployee.name(UPDATED_NAME);
+
+        restEmployeeMockMvc.perform(put("/api/employees")
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(updatedEmployee)))
+            .andExpect(status().isPreconditionFailed());
+        assertThat(employeeRepository.findOne(employee.getId()).getName()).isEqualTo(DEFAULT_NAME);
+
+        restEmployeeMockMvc.perform(put("/api/employees")
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(updatedEmployee)))
+            .andExpect(status().isOk());
+        assertThat(employeeRepository.findOne(employee.getId()).getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void updateEmployeeWithStaleVersion() throws Exception {
+        // Initialize the database
+        employeeService.save(employee);
+        em.flush();
+
+        Employee updatedEmployee = employeeRepository.findOne(employee.getId());
+        em.detach(updatedEmployee);
+        updatedEmployee.name(UPDATED_NAME);
+        updatedEmployee.setVersion(1L);
+
+        restEmployeeMockMvc.perform(put("/api/employees")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(updatedEmployee)))
+            .andExpect(status().isConflict());
+    }
+
     @Test
     @Transactional
     public void updateNonExistingEmployee() throws Exception {
@@ -9,7 +9,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
@@ -30,13 +32,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest(classes = TraningbackendApp.class)
 public class LogsResourceIntTest {
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     private MockMvc restLogsMockMvc;
 
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
 
-        LogsResource logsResource = new LogsResource();
+        LogsResource logsResource = new LogsResource(applicationEventPublisher);
         this.restLogsMockMvc = MockMvcBuilders
             .standaloneSetup(logsResource)
             .build();
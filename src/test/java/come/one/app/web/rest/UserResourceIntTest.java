@@ -5,7 +5,6 @@ import come.one.app.domain.Authority;
 import come.one.app.domain.User;
 import come.one.app.repository.UserRepository;
 import come.one.app.security.AuthoritiesConstants;
-import come.one.app.service.MailService;
 import come.one.app.service.UserService;
 import come.one.app.service.dto.UserDTO;
 import come.one.app.service.mapper.UserMapper;
@@ -73,9 +72,6 @@ public class UserResourceIntTest {
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
-    private MailService mailService;
-
     @Autowired
     private UserService userService;
 
@@ -101,7 +97,7 @@ public class UserResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        UserResource userResource = new UserResource(userRepository, userService, mailService);
+        UserResource userResource = new UserResource(userRepository, userService);
         this.restUserMockMvc = MockMvcBuilders.standaloneSetup(userResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
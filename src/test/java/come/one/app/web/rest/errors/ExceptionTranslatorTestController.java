@@ -1,5 +1,7 @@
 package come.one.app.web.rest.errors;
 
+import come.one.app.security.PasswordEncoderBusyException;
+
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -21,6 +23,11 @@ public class ExceptionTranslatorTestController {
         throw new ConcurrencyFailureException("test concurrency failure");
     }
 
+    @GetMapping("/test/password-encoder-busy")
+    public void passwordEncoderBusy() {
+        throw new PasswordEncoderBusyException("test password encoder busy", 3, null);
+    }
+
     @PostMapping("/test/method-argument")
     public void methodArgument(@Valid @RequestBody TestDTO testDTO) {
     }
@@ -0,0 +1,85 @@
+package come.one.app.web.rest.util;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ConditionalRequestUtil.
+ *
+ * @see ConditionalRequestUtil
+ */
+public class ConditionalRequestUtilUnitTest {
+
+    private static final String ETAG = "\"3.7.2\"";
+
+    @Test
+    public void createETagTest() {
+        assertThat(ConditionalRequestUtil.createETag(3L, 7L, 2L)).isEqualTo(ETAG);
+        assertThat(ConditionalRequestUtil.createETag(3L, null, null)).isEqualTo("\"3\"");
+    }
+
+    @Test
+    public void isNotModifiedWithIfNoneMatchTest() {
+        assertThat(ConditionalRequestUtil.isNotModified(request(HttpHeaders.IF_NONE_MATCH, ETAG), ETAG, -1)).isTrue();
+        assertThat(ConditionalRequestUtil.isNotModified(request(HttpHeaders.IF_NONE_MATCH, "\"1\", W/" + ETAG), ETAG, -1)).isTrue();
+        assertThat(ConditionalRequestUtil.isNotModified(request(HttpHeaders.IF_NONE_MATCH, "*"), ETAG, -1)).isTrue();
+        assertThat(ConditionalRequestUtil.isNotModified(request(HttpHeaders.IF_NONE_MATCH, "\"3.7.1\""), ETAG, -1)).isFalse();
+        assertThat(ConditionalRequestUtil.isNotModified(new MockHttpServletRequest(), ETAG, -1)).isFalse();
+    }
+
+    @Test
+    public void isNotModifiedWithIfModifiedSinceTest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, 10_000L);
+        assertThat(ConditionalRequestUtil.isNotModified(request, ETAG, 10_999L)).isTrue();
+        assertThat(ConditionalRequestUtil.isNotModified(request, ETAG, 11_000L)).isFalse();
+        assertThat(ConditionalRequestUtil.isNotModified(request, ETAG, -1)).isFalse();
+
+        // If-None-Match takes precedence
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1\"");
+        assertThat(ConditionalRequestUtil.isNotModified(request, ETAG, 10_999L)).isFalse();
+    }
+
+    @Test
+    public void isMatchedTest() {
+        assertThat(ConditionalRequestUtil.isMatched(new MockHttpServletRequest(), ETAG)).isTrue();
+        assertThat(ConditionalRequestUtil.isMatched(request(HttpHeaders.IF_MATCH, ETAG), ETAG)).isTrue();
+        assertThat(ConditionalRequestUtil.isMatched(request(HttpHeaders.IF_MATCH, "*"), ETAG)).isTrue();
+        // strong comparison
+        assertThat(ConditionalRequestUtil.isMatched(request(HttpHeaders.IF_MATCH, "W/" + ETAG), ETAG)).isFalse();
+        assertThat(ConditionalRequestUtil.isMatched(request(HttpHeaders.IF_MATCH, "\"3.7.1\""), ETAG)).isFalse();
+        // no such resource
+        assertThat(ConditionalRequestUtil.isMatched(request(HttpHeaders.IF_MATCH, "*"), null)).isFalse();
+    }
+
+    @Test
+    public void createHeadersTest() {
+        HttpHeaders headers = ConditionalRequestUtil.createHeaders(ETAG, 10_000L);
+        assertThat(headers.getETag()).isEqualTo(ETAG);
+        assertThat(headers.getLastModified()).isEqualTo(10_000L);
+        assertThat(headers.getCacheControl()).isEqualTo("no-cache");
+
+        // left out until the second of the change is over
+        assertThat(ConditionalRequestUtil.createHeaders(ETAG, System.currentTimeMillis() + 1000).getLastModified()).isEqualTo(-1);
+        assertThat(ConditionalRequestUtil.createHeaders(ETAG, -1).getLastModified()).isEqualTo(-1);
+    }
+
+    @Test
+    public void notModifiedTest() {
+        ResponseEntity<Void> response = ConditionalRequestUtil.notModified(ETAG, -1);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(response.hasBody()).isFalse();
+    }
+
+    private static MockHttpServletRequest request(String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(header, value);
+        return request;
+    }
+}
@@ -2,15 +2,23 @@ package come.one.app.web.rest.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
+import come.one.app.service.dto.KeysetCursor;
+import come.one.app.service.dto.KeysetSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpHeaders;
 
 /**
@@ -41,4 +49,36 @@ public class PaginationUtilUnitTest {
         assertTrue(Long.valueOf(xTotalCountHeaders.get(0)).equals(400L));
     }
 
+    @Test
+    public void generateSliceHttpHeadersTest() {
+        String baseUrl = "/api/_search/example?count=none";
+        List<String> content = new ArrayList<>();
+        Slice<String> slice = new SliceImpl<>(content, new PageRequest(6, 50), true);
+        HttpHeaders headers = PaginationUtil.generateSliceHttpHeaders(slice, baseUrl);
+        List<String> strHeaders = headers.get(HttpHeaders.LINK);
+        assertNotNull(strHeaders);
+        assertTrue(strHeaders.size() == 1);
+        String expectedData = "</api/_search/example?count=none&page=7&size=50>; rel=\"next\","
+                + "</api/_search/example?count=none&page=5&size=50>; rel=\"prev\","
+                + "</api/_search/example?count=none&page=0&size=50>; rel=\"first\"";
+        assertEquals(expectedData, strHeaders.get(0));
+        assertNull(headers.get("X-Total-Count"));
+    }
+
+    @Test
+    public void generateKeysetHttpHeadersTest() {
+        KeysetCursor cursor = new KeysetCursor("name", Sort.Direction.ASC, 1L, "a b");
+        KeysetSlice<String> slice = new KeysetSlice<>(new ArrayList<>(), new PageRequest(0, 50), cursor);
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        parameters.put("after", new String[] {"previous"});
+        parameters.put("name.contains", new String[] {"a b&c"});
+        parameters.put("sort", new String[] {"name,asc", "id,desc"});
+        HttpHeaders headers = PaginationUtil.generateKeysetHttpHeaders(slice, "/api/example", parameters);
+        List<String> strHeaders = headers.get(HttpHeaders.LINK);
+        assertNotNull(strHeaders);
+        assertTrue(strHeaders.size() == 1);
+        String expectedData = "</api/example?name.contains=a%20b%26c&sort=name,asc&sort=id,desc&after=" + cursor.encode() + "&size=50>; rel=\"next\","
+                + "</api/example?name.contains=a%20b%26c&sort=name,asc&sort=id,desc&after=&size=50>; rel=\"first\"";
+        assertEquals(expectedData, strHeaders.get(0));
+    }
 }